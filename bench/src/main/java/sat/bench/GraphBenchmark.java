@@ -0,0 +1,91 @@
+package sat.bench;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sat.Graph;
+import sat.core.IntFormula;
+import sat.io.DimacsReader;
+
+/**
+ * The 2SAT implication graph: building it, and finding its strongly connected
+ * components with the sequential Tarjan pass and with the parallel
+ * forward-backward search of ParallelSCC on pools of 1 to 16 threads. The
+ * speedup across core counts is generateSCC over generateSCCParallel at each
+ * thread count. Random problems straddle the 2SAT satisfiability threshold at
+ * one clause per variable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+    @Param({"2sat.cnf", "largeSat.cnf", "largeUnsat.cnf",
+            "random-k2-n100000-r0.5", "random-k2-n100000-r1.0", "random-k2-n100000-r1.5"})
+    public String instance;
+
+    private IntFormula formula;
+    private Graph graph;
+
+    /**
+     * A pool of its own for the parallel search, so that the thread count is
+     * what is asked for rather than that of the common pool.
+     */
+    @State(Scope.Benchmark)
+    public static class Pool {
+        @Param({"1", "2", "4", "8", "16"})
+        public int threads;
+
+        private ForkJoinPool pool;
+
+        @Setup
+        public void setup() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        formula = new DimacsReader(Instances.path(instance)).readIntFormula();
+        graph = new Graph(formula);
+    }
+
+    @Benchmark
+    public Graph construct() {
+        return new Graph(formula);
+    }
+
+    // KOSARAJU is recursive and can overflow the stack on the larger problems
+    @Benchmark
+    public Graph generateSCC() {
+        graph.generateSCC(Graph.Algorithm.TARJAN);
+        return graph;
+    }
+
+    @Benchmark
+    public Graph generateSCCParallel(Pool pool) {
+        graph.generateSCC(pool.pool);
+        return graph;
+    }
+}
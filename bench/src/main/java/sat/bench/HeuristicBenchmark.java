@@ -0,0 +1,65 @@
+package sat.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sat.CdclSolver;
+import sat.core.IntFormula;
+import sat.heuristic.DecisionHeuristic;
+import sat.heuristic.OrderHeuristic;
+import sat.heuristic.SmallestClauseHeuristic;
+import sat.heuristic.VsidsHeuristic;
+import sat.io.DimacsReader;
+
+/**
+ * CdclSolver with each DecisionHeuristic: EVSIDS, the fixed variable order
+ * it replaced, and the smallest-clause rule of the DPLL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeuristicBenchmark {
+    @Param({"s8Sat.cnf", "largeSat.cnf", "largeUnsat.cnf",
+            "random-k3-n100-r4.26", "random-k3-n150-r4.26", "random-k3-n200-r3.8"})
+    public String instance;
+
+    @Param({"VSIDS", "ORDER", "SMALLEST_CLAUSE"})
+    public String heuristic;
+
+    private IntFormula formula;
+
+    @Setup
+    public void setup() throws IOException {
+        formula = IntFormula.fromFormula(new DimacsReader(Instances.path(instance)).read());
+    }
+
+    @Benchmark
+    public byte[] solve() {
+        return new CdclSolver(formula).setHeuristic(makeHeuristic()).solve();
+    }
+
+    private DecisionHeuristic makeHeuristic() {
+        if (heuristic.equals("ORDER")) {
+            return new OrderHeuristic();
+        }
+        else if (heuristic.equals("SMALLEST_CLAUSE")) {
+            return new SmallestClauseHeuristic();
+        }
+        return new VsidsHeuristic();
+    }
+}
@@ -0,0 +1,117 @@
+package sat.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import immutable.ImHashMap;
+import immutable.ImListMap;
+import immutable.ImMap;
+import sat.env.Bool;
+import sat.env.Variable;
+
+/**
+ * get and put on ImHashMap and ImListMap holding size Variable to Bool
+ * bindings, as in an Environment. put either rebinds a bound variable or
+ * binds a new one.
+ *
+ * ImListMap only goes up to 10^4 bindings: building larger ones takes
+ * quadratic time. Its get and put recurse once per binding, hence the larger
+ * thread stacks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class ImMapBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class HashMapState {
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int size;
+
+        ImMap<Variable, Bool> map;
+        Variable[] keys;
+        Random random = new Random(1);
+
+        @Setup
+        public void setup() {
+            keys = keys(size);
+            map = new ImHashMap<Variable, Bool>();
+            for (Variable v : keys) {
+                map = map.put(v, Bool.TRUE);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ListMapState {
+        @Param({"1000", "10000"})
+        public int size;
+
+        ImMap<Variable, Bool> map;
+        Variable[] keys;
+        Random random = new Random(1);
+
+        @Setup
+        public void setup() {
+            keys = keys(size);
+            map = new ImListMap<Variable, Bool>();
+            for (Variable v : keys) {
+                map = map.put(v, Bool.TRUE);
+            }
+        }
+    }
+
+    private static final Variable FRESH = new Variable("fresh");
+
+    private static Variable[] keys(int size) {
+        Variable[] keys = new Variable[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = new Variable("x" + i);
+        }
+        return keys;
+    }
+
+    @Benchmark
+    public Bool hashMapGet(HashMapState s) {
+        return s.map.get(s.keys[s.random.nextInt(s.size)]);
+    }
+
+    @Benchmark
+    public ImMap<Variable, Bool> hashMapPutExisting(HashMapState s) {
+        return s.map.put(s.keys[s.random.nextInt(s.size)], Bool.FALSE);
+    }
+
+    @Benchmark
+    public ImMap<Variable, Bool> hashMapPutNew(HashMapState s) {
+        return s.map.put(FRESH, Bool.FALSE);
+    }
+
+    @Benchmark
+    public Bool listMapGet(ListMapState s) {
+        return s.map.get(s.keys[s.random.nextInt(s.size)]);
+    }
+
+    @Benchmark
+    public ImMap<Variable, Bool> listMapPutExisting(ListMapState s) {
+        return s.map.put(s.keys[s.random.nextInt(s.size)], Bool.FALSE);
+    }
+
+    @Benchmark
+    public ImMap<Variable, Bool> listMapPutNew(ListMapState s) {
+        return s.map.put(FRESH, Bool.FALSE);
+    }
+}
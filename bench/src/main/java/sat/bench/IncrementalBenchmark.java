@@ -0,0 +1,87 @@
+package sat.bench;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import sat.CdclSolver;
+import sat.Graph;
+import sat.IncrementalSolver;
+import sat.core.IntFormula;
+import sat.core.Lits;
+import sat.formula.Literal;
+import sat.io.DimacsReader;
+
+/**
+ * A batch of queries on one formula, each assuming a few random literals:
+ * answered by one IncrementalSolver, or by a new Graph or CdclSolver per
+ * query as SATSolver.solve would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncrementalBenchmark {
+    private static final int QUERIES = 100;
+    private static final int ASSUMPTIONS = 3;
+
+    @Param({"largeSat.cnf", "random-k2-n20000-r0.9", "random-k3-n150-r4.0"})
+    public String instance;
+
+    private IntFormula formula;
+    private int[][] queries;
+    private Literal[][] literalQueries;
+
+    @Setup
+    public void setup() throws IOException {
+        formula = IntFormula.fromFormula(new DimacsReader(Instances.path(instance)).read());
+        Random random = new Random(instance.hashCode());
+        queries = new int[QUERIES][ASSUMPTIONS];
+        literalQueries = new Literal[QUERIES][ASSUMPTIONS];
+        int[] literals = formula.getLiterals();
+        int numLiterals = formula.clauseEnd(formula.getNumClauses() - 1);
+        for (int q = 0; q < QUERIES; q++) {
+            for (int i = 0; i < ASSUMPTIONS; i++) {
+                // Assume a literal of the formula, with a random sign
+                int lit = Lits.make(Lits.var(literals[random.nextInt(numLiterals)]), random.nextBoolean());
+                queries[q][i] = lit;
+                literalQueries[q][i] = formula.toLiteral(lit);
+            }
+        }
+    }
+
+    @Benchmark
+    public void incremental(Blackhole blackhole) {
+        IncrementalSolver solver = new IncrementalSolver(formula);
+        for (Literal[] query : literalQueries) {
+            blackhole.consume(solver.solve(query));
+        }
+    }
+
+    @Benchmark
+    public void fromScratch(Blackhole blackhole) {
+        for (int[] query : queries) {
+            if (formula.getDegree() <= 2) {
+                blackhole.consume(new Graph(formula).solveAssuming(query));
+            }
+            else {
+                blackhole.consume(new CdclSolver(formula).solve(query));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package sat.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * The problems benchmarks run on, named by their @Param values:
+ *   "name.cnf" is a file in the sampleCNF directory, ../sampleCNF unless the
+ *     system property sat.bench.cnf says otherwise;
+ *   "random-k3-n200-r4.26" is a random k-SAT problem with n variables and
+ *     r * n clauses of k distinct variables each, with signs chosen at random.
+ *
+ * Random problems are seeded from their name, so every run and every fork
+ * sees the same formula. They are written to a temporary DIMACS file once
+ * per JVM, so that they are loaded through the same DimacsReader path as the
+ * sample files.
+ */
+final class Instances {
+    private static final HashMap<String, Path> generated = new HashMap<String, Path>();
+
+    private Instances() {
+    }
+
+    /**
+     * @return the DIMACS file of the named problem
+     */
+    static synchronized Path path(String name) throws IOException {
+        if (!name.startsWith("random-")) {
+            return Paths.get(System.getProperty("sat.bench.cnf", "../sampleCNF"), name);
+        }
+        Path path = generated.get(name);
+        if (path == null) {
+            path = Files.createTempFile(name + "-", ".cnf");
+            path.toFile().deleteOnExit();
+            writeRandom(name, path);
+            generated.put(name, path);
+        }
+        return path;
+    }
+
+    private static void writeRandom(String name, Path path) throws IOException {
+        String[] parts = name.split("-");
+        if (parts.length != 4 || !parts[1].startsWith("k") || !parts[2].startsWith("n") || !parts[3].startsWith("r")) {
+            throw new IllegalArgumentException("Expected random-k<width>-n<variables>-r<ratio>: " + name);
+        }
+        int k = Integer.parseInt(parts[1].substring(1));
+        int n = Integer.parseInt(parts[2].substring(1));
+        int m = (int) Math.round(Double.parseDouble(parts[3].substring(1)) * n);
+        Random random = new Random(name.hashCode());
+        int[] clause = new int[k];
+
+        BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.US_ASCII);
+        try {
+            out.write("c " + name + "\n");
+            out.write("p cnf " + n + " " + m + "\n");
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < k; j++) {
+                    // Variables within a clause are distinct
+                    boolean fresh;
+                    do {
+                        clause[j] = random.nextInt(n) + 1;
+                        fresh = true;
+                        for (int l = 0; l < j; l++) {
+                            fresh &= clause[l] != clause[j];
+                        }
+                    } while (!fresh);
+                    out.write(random.nextBoolean() ? clause[j] + " " : -clause[j] + " ");
+                }
+                out.write("0\n");
+            }
+        }
+        finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package sat.bench;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sat.core.IntFormula;
+import sat.formula.Formula;
+import sat.io.DimacsReader;
+
+/**
+ * Loading DIMACS files, into a Formula and into an IntFormula.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+    @Param({"simple.cnf", "0110.cnf", "2sat.cnf", "s8Sat.cnf", "largeSat.cnf", "largeUnsat.cnf",
+            "random-k3-n10000-r4.26", "random-k2-n100000-r1.0"})
+    public String instance;
+
+    private Path path;
+
+    @Setup
+    public void setup() throws IOException {
+        path = Instances.path(instance);
+    }
+
+    @Benchmark
+    public Formula read() throws IOException {
+        return new DimacsReader(path).read();
+    }
+
+    @Benchmark
+    public IntFormula readIntFormula() throws IOException {
+        return new DimacsReader(path).readIntFormula();
+    }
+}
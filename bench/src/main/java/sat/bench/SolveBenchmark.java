@@ -0,0 +1,58 @@
+package sat.bench;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sat.SATSolver;
+import sat.env.Bool;
+import sat.env.Variable;
+import sat.formula.Formula;
+import sat.io.DimacsReader;
+
+/**
+ * SATSolver.solve with each engine, on the sample files and on random 3-SAT
+ * below, at and above the satisfiability threshold of about 4.26 clauses per
+ * variable. 2SAT problems go to Graph whatever the engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({"simple.cnf", "0110.cnf", "2sat.cnf", "s8Sat.cnf", "largeSat.cnf", "largeUnsat.cnf",
+            "random-k3-n60-r3.0", "random-k3-n60-r4.26", "random-k3-n60-r5.0"})
+    public String instance;
+
+    @Param({"CDCL", "DPLL", "PORTFOLIO", "CUBE"})
+    public SATSolver.Engine engine;
+
+    private Formula formula;
+    private int degree;
+
+    @Setup
+    public void setup() throws IOException {
+        DimacsReader reader = new DimacsReader(Instances.path(instance));
+        formula = reader.read();
+        degree = reader.getDegree();
+    }
+
+    @Benchmark
+    public HashMap<Variable, Bool> solve() {
+        return SATSolver.solve(formula, degree, engine);
+    }
+}
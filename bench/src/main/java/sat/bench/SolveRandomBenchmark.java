@@ -0,0 +1,57 @@
+package sat.bench;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sat.SATSolver;
+import sat.env.Bool;
+import sat.io.DimacsReader;
+import sat.formula.Formula;
+
+/**
+ * SATSolver.solveRandom: the random walk on 2SAT problems and WalkSAT on
+ * wider ones. Only satisfiable problems are used, since on the others the
+ * walk always spends its whole budget of 100n^2 flips (about 3.7 billion for
+ * largeUnsat).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolveRandomBenchmark {
+    @Param({"simple.cnf", "2sat.cnf", "s8Sat.cnf", "largeSat.cnf",
+            "random-k2-n10000-r0.5", "random-k3-n1000-r3.0", "random-k3-n1000-r3.8"})
+    public String instance;
+
+    private Formula formula;
+    private int numVariables;
+    private int degree;
+
+    @Setup
+    public void setup() throws IOException {
+        DimacsReader reader = new DimacsReader(Instances.path(instance));
+        formula = reader.read();
+        numVariables = reader.getNumVariables();
+        degree = reader.getDegree();
+    }
+
+    @Benchmark
+    public HashMap<String, Bool> solveRandom() {
+        return SATSolver.solveRandom(formula, numVariables, degree);
+    }
+}
@@ -0,0 +1,324 @@
+package sat.cli;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+import sat.CdclSettings;
+import sat.CdclSolver;
+import sat.Graph;
+import sat.ModelVerifier;
+import sat.SATSolver;
+import sat.core.IntFormula;
+import sat.core.Lits;
+import sat.env.Bool;
+import sat.env.Variable;
+import sat.formula.Clause;
+import sat.formula.Formula;
+import sat.formula.Literal;
+import sat.formula.PosLiteral;
+import sat.io.DimacsReader;
+import sat.io.DratWriter;
+import sat.io.ModelWriter;
+import sat.preprocess.Preprocessor;
+
+/**
+ * Command line solver.
+ *
+ * Usage: java -jar sat-solver.jar [--proof proof.drat [--binary-proof]]
+ *        [--name-value] [--no-preprocess] [--restarts luby|geometric|glucose|none]
+ *        [--restart-interval n] [--reduce-interval n] [--reduce-increment n] [--stats]
+ *        problem.cnf result.txt [cdcl|dpll|portfolio|cube|random]
+ *
+ * Reads a DIMACS cnf file, solves it with SATSolver.solve and writes the
+ * outcome to the result file with ModelWriter: "s SATISFIABLE" and the model
+ * as "v" lines, "s UNSATISFIABLE", or "s UNKNOWN" when the search gave up
+ * without an answer, in the format of the SAT competitions.
+ * With --name-value the model is written as one "variable:value" line per
+ * variable instead, or "null" if there is none. The optional engine is used for
+ * problems of degree more than 2; CDCL by default. "random" uses
+ * SATSolver.solveRandom instead, which may fail to find a model that exists.
+ *
+ * Every model is checked against the clauses by ModelVerifier before it is
+ * written; if the check fails, nothing is written and the exit status is 1.
+ *
+ * Problems of degree more than 2 are first simplified by a Preprocessor,
+ * unless --no-preprocess is given, and how much it removed is printed.
+ *
+ * --restarts, --restart-interval, --reduce-interval (0 for never) and
+ * --reduce-increment tune the restarts and learnt clause reduction of the
+ * CDCL engine (see CdclSettings), and --stats prints what it did.
+ *
+ * With --proof, a problem found not satisfiable gets a DRAT proof of that
+ * written to the given file, in the binary DRAT format with --binary-proof,
+ * which can be checked with drat-trim. For 2SAT problems the implication
+ * cycle through a literal and its negation is printed as well.
+ */
+public class Main {
+    private static final String USAGE = "Usage: java -jar sat-solver.jar [--proof proof.drat [--binary-proof]]"
+            + " [--name-value] [--no-preprocess] [--restarts luby|geometric|glucose|none]"
+            + " [--restart-interval n] [--reduce-interval n] [--reduce-increment n] [--stats]"
+            + " problem.cnf result.txt [cdcl|dpll|portfolio|cube|random]";
+    private static final int MAX_CYCLE_PRINTED = 50;
+
+    public static void main(String[] options) {
+        // Read the .cnf file and calls SATSolver.solve to determine the satisfiability
+        String proofFile = null;
+        DratWriter.Format proofFormat = DratWriter.Format.TEXT;
+        ModelWriter.Format resultFormat = ModelWriter.Format.COMPETITION;
+        boolean preprocess = true;
+        CdclSettings settings = new CdclSettings();
+        List<String> positional = new ArrayList<String>();
+        for (int i = 0; i < options.length; i++) {
+            if (options[i].equals("--proof") && i + 1 < options.length) {
+                proofFile = options[++i];
+            }
+            else if (options[i].equals("--binary-proof")) {
+                proofFormat = DratWriter.Format.BINARY;
+            }
+            else if (options[i].equals("--name-value")) {
+                resultFormat = ModelWriter.Format.NAME_VALUE;
+            }
+            else if (options[i].equals("--no-preprocess")) {
+                preprocess = false;
+            }
+            else if (options[i].equals("--stats")) {
+                settings.setListener(Main::printStats);
+            }
+            else if (options[i].startsWith("--re") && i + 1 < options.length) {
+                if (!setCdclOption(settings, options[i], options[++i])) {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+            else if (options[i].startsWith("--")) {
+                System.out.println(USAGE);
+                return;
+            }
+            else {
+                positional.add(options[i]);
+            }
+        }
+        String[] args = positional.toArray(new String[0]);
+        if (args.length < 2) {
+            System.out.println(USAGE);
+            return;
+        }
+        SATSolver.Engine engine = SATSolver.Engine.CDCL;
+        boolean random = args.length > 2 && args[2].equalsIgnoreCase("random");
+        if (args.length > 2 && !random) {
+            try {
+                engine = SATSolver.Engine.valueOf(args[2].toUpperCase());
+            }
+            catch (IllegalArgumentException e) {
+                System.out.println("Unknown engine: " + args[2]);
+                return;
+            }
+        }
+        if (proofFile != null && (engine == SATSolver.Engine.PORTFOLIO || engine == SATSolver.Engine.CUBE)) {
+            System.out.println("The " + args[2].toLowerCase() + " engine cannot write proofs");
+            return;
+        }
+        try {
+            DimacsReader reader = new DimacsReader(Paths.get(args[0]));
+            Formula fm = reader.read();
+            int degree = reader.getDegree();
+            System.out.println("Parsed " + reader.getClausesRead() + " clauses in "
+                    + reader.getNanosTaken() / 1000000.0 + "ms ("
+                    + String.format("%.1f", reader.getThroughput()) + " MB/s)");
+
+            System.out.println("SAT solver starts!!!");
+            long started = System.nanoTime();
+
+            Map<?, Bool> results;
+            boolean unknown = false; // whether the search ended without an answer
+            if (random) {
+                results = SATSolver.solveRandom(fm, reader.getNumVariables(), degree);
+                if (results == null) System.out.println("no model found");
+                else System.out.println("satisfiable");
+            }
+            else if (degree <= 2) {
+                // Solved here rather than by SATSolver.solve so that the graph is at hand to print its cycle
+                Graph graph = new Graph(fm, degree);
+                results = graph.solve();
+                if (results == null) {
+                    System.out.println("not satisfiable");
+                    printCycle(graph.getUnsatCycle());
+                    if (proofFile != null) {
+                        writeProof(proofFile, proofFormat, graph);
+                    }
+                }
+                else System.out.println("satisfiable");
+            }
+            else {
+                DratWriter proof = proofFile == null ? null : new DratWriter(Paths.get(proofFile), proofFormat);
+                try {
+                    if (preprocess) {
+                        Preprocessor preprocessor = new Preprocessor(IntFormula.fromFormula(fm));
+                        results = SATSolver.solve(preprocessor, engine, proof, settings);
+                        printStats(preprocessor);
+                    }
+                    else {
+                        results = SATSolver.solve(fm, degree, engine, proof, settings);
+                    }
+                }
+                catch (CancellationException e) {
+                    // The portfolio gave up: neither a model nor a refutation
+                    results = null;
+                    unknown = true;
+                }
+                finally {
+                    if (proof != null) {
+                        proof.close();
+                    }
+                }
+                if (unknown) {
+                    System.out.println("no answer");
+                }
+                else if (results == null) {
+                    System.out.println("not satisfiable");
+                    if (proof != null) {
+                        System.out.println("Proof written to " + proofFile + " (" + proof.getAdded() + " clauses)");
+                    }
+                }
+                else System.out.println("satisfiable");
+            }
+
+            long timeTaken = System.nanoTime() - started;
+            System.out.println("Time:" + timeTaken / 1000000.0 + "ms");
+
+            if (results != null && !verify(fm, results, random)) {
+                System.exit(1);
+            }
+
+            System.out.println("Printing out the results into file...");
+            ModelWriter writer = new ModelWriter(Paths.get(args[1]), resultFormat);
+            try {
+                if (results != null) {
+                    byte[] model = toDimacsOrder(results, reader.getNumVariables());
+                    writer.writeSatisfiable(model, model.length);
+                }
+                else if (random || unknown) {
+                    writer.writeUnknown();
+                }
+                else {
+                    writer.writeUnsatisfiable();
+                }
+            }
+            finally {
+                writer.close();
+            }
+            System.out.println("Printing complete.");
+        }
+        catch (IOException e) {
+            System.out.println(e);
+        }
+    }
+
+    // The model as a value per DIMACS variable, keyed by Variable or, from solveRandom, by name
+    private static byte[] toDimacsOrder(Map<?, Bool> results, int numVariables) {
+        byte[] model = new byte[numVariables];
+        for (Map.Entry<?, Bool> e : results.entrySet()) {
+            Variable v = e.getKey() instanceof Variable
+                    ? (Variable) e.getKey()
+                    : PosLiteral.make((String) e.getKey()).getVariable();
+            int number = IntFormula.dimacsNumber(v);
+            if (number > model.length) {
+                // More variables than the header said
+                model = Arrays.copyOf(model, Math.max(number, 2 * model.length));
+            }
+            model[number - 1] = Lits.fromBool(e.getValue());
+        }
+        return model;
+    }
+
+    private static void printStats(Preprocessor preprocessor) {
+        System.out.println("Preprocessed in " + preprocessor.getNanosTaken() / 1000000.0 + "ms: "
+                + preprocessor.getOriginalClauses() + " -> " + preprocessor.getRemainingClauses() + " clauses, "
+                + preprocessor.getOriginalLiterals() + " -> " + preprocessor.getRemainingLiterals() + " literals ("
+                + preprocessor.getFixed() + " fixed, " + preprocessor.getPure() + " pure, "
+                + preprocessor.getDuplicates() + " duplicate, " + preprocessor.getSubsumed() + " subsumed, "
+                + preprocessor.getEliminated() + " eliminated)");
+    }
+
+    // Set a CDCL option from the command line, returning false if it is not one or value is bad
+    private static boolean setCdclOption(CdclSettings settings, String option, String value) {
+        try {
+            if (option.equals("--restarts")) {
+                settings.setRestarts(CdclSettings.Restarts.valueOf(value.toUpperCase()));
+            }
+            else if (option.equals("--restart-interval")) {
+                settings.setRestartInterval(Integer.parseInt(value));
+            }
+            else if (option.equals("--reduce-interval")) {
+                settings.setReduceInterval(Integer.parseInt(value));
+            }
+            else if (option.equals("--reduce-increment")) {
+                settings.setReduceIncrement(Integer.parseInt(value));
+            }
+            else {
+                return false;
+            }
+            return true;
+        }
+        catch (IllegalArgumentException e) {
+            System.out.println("Bad value for " + option + ": " + value);
+            return false;
+        }
+    }
+
+    private static void printStats(CdclSolver solver) {
+        System.out.println("CDCL: " + solver.getConflicts() + " conflicts, " + solver.getDecisions() + " decisions, "
+                + solver.getPropagations() + " propagations, " + solver.getLearnt() + " learnt, "
+                + solver.getRestarts() + " restarts, " + solver.getReductions() + " reductions ("
+                + solver.getDeleted() + " deleted)");
+    }
+
+    private static void printCycle(Literal[] cycle) {
+        if (cycle == null) {
+            // Unsatisfiable because of an empty clause
+            return;
+        }
+        StringBuilder s = new StringBuilder("Implication cycle (" + (cycle.length - 1) + " literals): ");
+        int shown = Math.min(cycle.length, MAX_CYCLE_PRINTED);
+        for (int i = 0; i < shown; i++) {
+            s.append(i == 0 ? "" : " -> ").append(cycle[i]);
+        }
+        if (shown < cycle.length) {
+            s.append(" -> ...");
+        }
+        System.out.println(s);
+    }
+
+    private static void writeProof(String file, DratWriter.Format format, Graph graph) throws IOException {
+        DratWriter proof = new DratWriter(Paths.get(file), format);
+        try {
+            graph.writeUnsatProof(proof);
+        }
+        finally {
+            proof.close();
+        }
+        System.out.println("Proof written to " + file + " (" + proof.getAdded() + " clauses)");
+    }
+
+    // Check the model against the clauses, reporting the first one it violates
+    @SuppressWarnings("unchecked")
+    private static boolean verify(Formula fm, Map<?, Bool> results, boolean byName) {
+        long started = System.nanoTime();
+        ModelVerifier verifier = new ModelVerifier(fm);
+        Clause violated = byName
+                ? verifier.firstViolatedByName((Map<String, Bool>) results)
+                : verifier.firstViolated((Map<Variable, Bool>) results);
+        if (violated != null) {
+            System.out.println("Model check failed: " + violated + " is not satisfied");
+            return false;
+        }
+        System.out.println("Model checked against " + fm.getSize() + " clauses in "
+                + (System.nanoTime() - started) / 1000000.0 + "ms");
+        return true;
+    }
+}
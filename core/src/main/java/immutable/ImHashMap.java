@@ -0,0 +1,238 @@
+package immutable;
+
+/**
+ * Implementation of immutable generic map as a hash array mapped trie. See
+ * ImMap for specification.
+ *
+ * The trie branches 32 ways on successive 5 bit slices of the key's hash,
+ * and each node only stores the branches that are present, indexed through a
+ * bitmap. get and put therefore take O(log32 n) steps, and put copies only
+ * the nodes on the path to the key: the rest of the trie is shared between
+ * the old and the new map. Keys whose hashes are entirely equal end up
+ * together in a collision node, which is searched linearly.
+ */
+public class ImHashMap<K, V> implements ImMap<K, V> {
+    /*
+     * Rep invariant
+     *     root != null, size == number of keys in the trie
+     *     keys and values non-null, no duplicate keys
+     *     a key is stored under the path given by its spread hash
+     */
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final Node root;
+    private final int size;
+
+    public ImHashMap() {
+        this(EMPTY, 0);
+    }
+
+    private ImHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public boolean containsKey(Object k) {
+        return get(k) != null;
+    }
+
+    /*
+     * walk down the trie without recursion: the depth is at most 7 levels of
+     * bitmap nodes, then possibly a collision node
+     */
+    public V get(Object k) {
+        int hash = hash(k);
+        Node node = root;
+        int shift = 0;
+        while (node instanceof BitmapNode) {
+            BitmapNode b = (BitmapNode) node;
+            int bit = bitpos(hash, shift);
+            if ((b.bitmap & bit) == 0)
+                return null;
+            int i = b.index(bit);
+            Object key = b.array[2 * i];
+            Object value = b.array[2 * i + 1];
+            if (key != null)
+                return key.equals(k) ? cast(value) : null;
+            node = (Node) value;
+            shift += BITS;
+        }
+        return cast(((CollisionNode) node).find(k));
+    }
+
+    public ImMap<K, V> put(K key, V value) {
+        assert key != null : "ImHashMap: keys non-null";
+        assert value != null : "ImHashMap: values non-null";
+        boolean[] added = new boolean[1];
+        Node newRoot = root.put(0, hash(key), key, value, added);
+        if (newRoot == root)
+            return this;
+        return new ImHashMap<K, V>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        root.appendTo(s);
+        if (size > 0)
+            s.setLength(s.length() - 1);
+        return s.append("]").toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V cast(Object value) {
+        return (V) value;
+    }
+
+    // Spread the high bits down, since the trie uses the low bits first
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static abstract class Node {
+        /**
+         * @return a node with key bound to value, or this if the binding is
+         *         already present; sets added[0] if key was not bound
+         */
+        abstract Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        abstract void appendTo(StringBuilder s);
+    }
+
+    /*
+     * For each bit set in bitmap, two slots of array: either a key and its
+     * value, or null and the child node for that slice of the hash.
+     */
+    private static final class BitmapNode extends Node {
+        final int bitmap;
+        final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        // Position among the present branches of the branch at bit
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = bitpos(hash, shift);
+            int i = index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, 2 * i);
+                newArray[2 * i] = key;
+                newArray[2 * i + 1] = value;
+                System.arraycopy(array, 2 * i, newArray, 2 * i + 2, array.length - 2 * i);
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+
+            Object k = array[2 * i];
+            Object v = array[2 * i + 1];
+            if (k == null) {
+                Node child = ((Node) v).put(shift + BITS, hash, key, value, added);
+                return child == v ? this : with(2 * i + 1, child);
+            } else if (k.equals(key)) {
+                return v == value ? this : with(2 * i + 1, value);
+            } else {
+                // Two keys in one slot: push both down a level
+                added[0] = true;
+                Node child = pair(shift + BITS, k, v, hash, key, value);
+                BitmapNode copy = with(2 * i + 1, child);
+                copy.array[2 * i] = null;
+                return copy;
+            }
+        }
+
+        private BitmapNode with(int slot, Object o) {
+            Object[] newArray = array.clone();
+            newArray[slot] = o;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        void appendTo(StringBuilder s) {
+            for (int j = 0; j < array.length; j += 2) {
+                if (array[j] == null) {
+                    ((Node) array[j + 1]).appendTo(s);
+                } else {
+                    s.append(array[j]).append("->").append(array[j + 1]).append(",");
+                }
+            }
+        }
+    }
+
+    // Keys with the same full hash, searched linearly
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Object[] array; // key, value, key, value, ...
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        Object find(Object key) {
+            for (int j = 0; j < array.length; j += 2) {
+                if (array[j].equals(key))
+                    return array[j + 1];
+            }
+            return null;
+        }
+
+        Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // Nest this node in a bitmap node, which the new key can then go into
+                BitmapNode parent = new BitmapNode(bitpos(this.hash, shift), new Object[] {null, this});
+                return parent.put(shift, hash, key, value, added);
+            }
+            for (int j = 0; j < array.length; j += 2) {
+                if (array[j].equals(key)) {
+                    if (array[j + 1] == value)
+                        return this;
+                    Object[] newArray = array.clone();
+                    newArray[j + 1] = value;
+                    return new CollisionNode(hash, newArray);
+                }
+            }
+            added[0] = true;
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            return new CollisionNode(hash, newArray);
+        }
+
+        void appendTo(StringBuilder s) {
+            for (int j = 0; j < array.length; j += 2) {
+                s.append(array[j]).append("->").append(array[j + 1]).append(",");
+            }
+        }
+    }
+
+    // A node holding two distinct keys, at the given depth
+    private static Node pair(int shift, Object k1, Object v1, int hash2, Object k2, Object v2) {
+        int hash1 = hash(k1);
+        if (hash1 == hash2)
+            return new CollisionNode(hash1, new Object[] {k1, v1, k2, v2});
+        boolean[] ignored = new boolean[1];
+        return EMPTY.put(shift, hash1, k1, v1, ignored).put(shift, hash2, k2, v2, ignored);
+    }
+}
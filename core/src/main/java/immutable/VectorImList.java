@@ -0,0 +1,444 @@
+package immutable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable list backed by a persistent bit-partitioned vector. See
+ * ImList for specification.
+ *
+ * The elements are stored back to front, so that the first element of the
+ * list is the last element of the vector: add appends to the vector, and
+ * first and rest look at and drop its last element. The vector is a tree of
+ * 32-way nodes over leaf arrays of up to 32 elements, plus a tail array
+ * holding the last (up to 32) elements. add, first, rest, get and remove
+ * take O(log32 n) time beyond finding the element, copying only the path to
+ * the changed leaf and sharing everything else with the original list.
+ *
+ * While only add and rest are used, the leaves are full and a position is
+ * found from its successive 5 bit slices. remove drops the element from its
+ * leaf, so the nodes on the path to it become relaxed, as in RRB vectors:
+ * they carry a table of the cumulative sizes of their children, and lookups
+ * below them step past the children the slice undercounts.
+ * contains, equals, hashCode and iteration walk the leaf arrays directly, and
+ * nothing recurses deeper than the height of the tree, so long lists cannot
+ * overflow the stack.
+ */
+public class VectorImList<E> implements ImList<E> {
+    /*
+     * Rep invariant:
+     *   0 <= size, 0 < tail.length <= 32 if size > 0, tail.length == 0 otherwise
+     *   the tree under root holds the size - tail.length elements before the
+     *   tail, and has height shift / 5 (leaves are at 0)
+     *   shift >= 5; root has a second child if shift > 5
+     *   a balanced node has length 32, only full leaves below it, and its
+     *   children packed to the left, each full but the last
+     *   a relaxed node has length 33, its children packed to the left, each
+     *   non-empty, and in its last slot an int[] whose ith entry is the number
+     *   of elements under its first i + 1 children
+     *   no null elements
+     *
+     * Abstraction function:
+     *   [v_{size-1}, ..., v_1, v_0] where v_i is the ith element of the
+     *   vector formed by the leaves of root in order, followed by tail
+     */
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final Object[] EMPTY_TAIL = new Object[0];
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    /**
+     * Make an empty list.
+     */
+    public VectorImList() {
+        this(0, BITS, EMPTY_NODE, EMPTY_TAIL);
+    }
+
+    /**
+     * Make a list containing only e.
+     * @requires e != null
+     */
+    public VectorImList(E e) {
+        this(1, BITS, EMPTY_NODE, new Object[] {e});
+        assert e != null : "VectorImList(null)";
+    }
+
+    private VectorImList(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    // A list over root, with the levels above its first single-child node dropped
+    private static <E> VectorImList<E> make(int size, int shift, Object[] root, Object[] tail) {
+        if (root == null)
+            return new VectorImList<E>(size, BITS, EMPTY_NODE, tail);
+        while (shift > BITS && root[1] == null) {
+            root = (Object[]) root[0];
+            shift -= BITS;
+        }
+        return new VectorImList<E>(size, shift, root, tail);
+    }
+
+    // Number of elements held in the tree rather than the tail
+    private int tailOffset() {
+        return size - tail.length;
+    }
+
+    // The size table of an internal node, or null if it is balanced
+    private static int[] sizes(Object[] node) {
+        return node.length > WIDTH ? (int[]) node[WIDTH] : null;
+    }
+
+    // The child of node, at the given level, holding position i of its subtree
+    private static int slot(Object[] node, int level, int i) {
+        int sub = i >>> level;
+        int[] sizes = sizes(node);
+        if (sizes != null) {
+            while (sizes[sub] <= i) {
+                sub += 1;
+            }
+        }
+        return sub;
+    }
+
+    // Position in the subtree of node where its child sub starts
+    private static int childStart(Object[] node, int level, int sub) {
+        int[] sizes = sizes(node);
+        if (sizes == null)
+            return sub << level;
+        return sub == 0 ? 0 : sizes[sub - 1];
+    }
+
+    // The leaf array holding vector position i
+    private Object[] leafFor(int i) {
+        if (i >= tailOffset())
+            return tail;
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            int sub = slot(node, level, i);
+            i -= childStart(node, level, sub);
+            node = (Object[]) node[sub];
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E at(int i) {
+        int offset = tailOffset();
+        if (i >= offset)
+            return (E) tail[i - offset];
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            int sub = slot(node, level, i);
+            i -= childStart(node, level, sub);
+            node = (Object[]) node[sub];
+        }
+        return (E) node[i];
+    }
+
+    /**
+     * Get an element by its position in the list.
+     * @requires 0 <= index < size()
+     * @return e_index where this list = [e_0,...,e_n]
+     */
+    public E get(int index) {
+        assert 0 <= index && index < size : "VectorImList.get(" + index + ")";
+        return at(size - 1 - index);
+    }
+
+    public ImList<E> add(E e) {
+        assert e != null : "VectorImList.add(null)";
+        return push(e);
+    }
+
+    // Append e to the vector
+    private VectorImList<E> push(Object e) {
+        if (tail.length < WIDTH) {
+            Object[] newTail = new Object[tail.length + 1];
+            System.arraycopy(tail, 0, newTail, 0, tail.length);
+            newTail[tail.length] = e;
+            return new VectorImList<E>(size + 1, shift, root, newTail);
+        }
+        // The tail is full: it becomes a leaf of the tree
+        int offset = tailOffset();
+        Object[] newRoot = pushLeaf(shift, root, tail);
+        int newShift = shift;
+        if (newRoot == null) {
+            // No room under the root: add a level
+            int[] sizes = sizes(root);
+            newRoot = new Object[sizes == null ? WIDTH : WIDTH + 1];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            if (sizes != null) {
+                newRoot[WIDTH] = new int[] {offset, offset + WIDTH};
+            }
+            newShift += BITS;
+        }
+        return new VectorImList<E>(size + 1, newShift, newRoot, new Object[] {e});
+    }
+
+    // Copy of node, at the given level, with leaf after its last leaf; null if it has no room
+    private static Object[] pushLeaf(int level, Object[] node, Object[] leaf) {
+        int[] sizes = sizes(node);
+        int count = sizes == null ? children(node) : sizes.length;
+        Object[] child = null;
+        if (level > BITS && count > 0) {
+            child = pushLeaf(level - BITS, (Object[]) node[count - 1], leaf);
+        }
+        if (child == null && count == WIDTH)
+            return null;
+        Object[] copy = node.clone();
+        if (child != null) {
+            copy[count - 1] = child;
+        } else {
+            copy[count] = newPath(level - BITS, leaf);
+        }
+        if (sizes != null) {
+            int[] newSizes = Arrays.copyOf(sizes, child != null ? count : count + 1);
+            newSizes[newSizes.length - 1] = sizes[count - 1] + leaf.length;
+            copy[WIDTH] = newSizes;
+        }
+        return copy;
+    }
+
+    // Number of children of a balanced node
+    private static int children(Object[] node) {
+        int count = 0;
+        while (count < WIDTH && node[count] != null) {
+            count += 1;
+        }
+        return count;
+    }
+
+    // A chain of nodes from the given level down to the leaf
+    private static Object[] newPath(int level, Object[] leaf) {
+        Object[] node = leaf;
+        for (int l = 0; l < level; l += BITS) {
+            Object[] parent = new Object[WIDTH];
+            parent[0] = node;
+            node = parent;
+        }
+        return node;
+    }
+
+    public E first() {
+        assert size > 0 : "VectorImList.first";
+        return at(size - 1);
+    }
+
+    public ImList<E> rest() {
+        assert size > 0 : "VectorImList.rest";
+        return take(size - 1);
+    }
+
+    /*
+     * The first n elements of the vector, sharing the tree with this: only
+     * the path to the last remaining leaf is copied.
+     */
+    private VectorImList<E> take(int n) {
+        if (n == size)
+            return this;
+        if (n == 0)
+            return new VectorImList<E>();
+        int offset = tailOffset();
+        if (n > offset)
+            return new VectorImList<E>(n, shift, root, Arrays.copyOf(tail, n - offset));
+
+        // The leaf holding position n - 1 becomes the tail
+        Object[] node = root;
+        int leafStart = 0;
+        for (int level = shift; level > 0; level -= BITS) {
+            int sub = slot(node, level, n - 1 - leafStart);
+            leafStart += childStart(node, level, sub);
+            node = (Object[]) node[sub];
+        }
+        Object[] newTail = Arrays.copyOf(node, n - leafStart);
+        if (leafStart == 0)
+            return new VectorImList<E>(n, BITS, EMPTY_NODE, newTail);
+        return make(n, shift, trim(shift, root, leafStart), newTail);
+    }
+
+    // Copy of the path to the end of the first keep elements, without the subtrees after it
+    private static Object[] trim(int level, Object[] node, int keep) {
+        int sub = slot(node, level, keep - 1);
+        int start = childStart(node, level, sub);
+        Object[] child = (Object[]) node[sub];
+        int[] sizes = sizes(node);
+        Object[] copy = new Object[node.length];
+        System.arraycopy(node, 0, copy, 0, sub);
+        boolean whole = level == BITS || (sizes != null ? sizes[sub] == keep : keep - start == 1 << level);
+        copy[sub] = whole ? child : trim(level - BITS, child, keep - start);
+        if (sizes != null) {
+            int[] newSizes = Arrays.copyOf(sizes, sub + 1);
+            newSizes[sub] = keep;
+            copy[WIDTH] = newSizes;
+        }
+        return copy;
+    }
+
+    public ImList<E> remove(E e) {
+        assert e != null : "VectorImList.remove(null)";
+        int i = size - 1;
+        for (E x : this) {
+            if (x.equals(e))
+                break;
+            i -= 1;
+        }
+        if (i < 0)
+            return this;
+        int offset = tailOffset();
+        if (i >= offset) {
+            if (tail.length == 1)
+                return take(i);
+            Object[] newTail = new Object[tail.length - 1];
+            System.arraycopy(tail, 0, newTail, 0, i - offset);
+            System.arraycopy(tail, i - offset + 1, newTail, i - offset, newTail.length - (i - offset));
+            return new VectorImList<E>(size - 1, shift, root, newTail);
+        }
+        return make(size - 1, shift, removeAt(shift, root, offset, i), tail);
+    }
+
+    /*
+     * Copy of node, a subtree of the given size at the given level, without
+     * its element at position i, or null if that was its only element. The
+     * copies on the path are relaxed; everything off it is shared.
+     */
+    private static Object[] removeAt(int level, Object[] node, int size, int i) {
+        if (level == 0) {
+            if (node.length == 1)
+                return null;
+            Object[] leaf = new Object[node.length - 1];
+            System.arraycopy(node, 0, leaf, 0, i);
+            System.arraycopy(node, i + 1, leaf, i, leaf.length - i);
+            return leaf;
+        }
+        int[] sizes = sizes(node);
+        if (sizes == null) {
+            // Every child of a balanced node is full but the last
+            sizes = new int[((size - 1) >>> level) + 1];
+            for (int j = 0; j < sizes.length; j++) {
+                sizes[j] = Math.min((j + 1) << level, size);
+            }
+        }
+        int sub = slot(node, level, i);
+        int start = sub == 0 ? 0 : sizes[sub - 1];
+        Object[] child = removeAt(level - BITS, (Object[]) node[sub], sizes[sub] - start, i - start);
+        if (child == null && sizes.length == 1)
+            return null;
+        Object[] copy = new Object[WIDTH + 1];
+        int[] newSizes = new int[child == null ? sizes.length - 1 : sizes.length];
+        System.arraycopy(node, 0, copy, 0, sub);
+        System.arraycopy(sizes, 0, newSizes, 0, sub);
+        if (child != null) {
+            copy[sub] = child;
+            newSizes[sub] = sizes[sub] - 1;
+        }
+        int after = child == null ? sub : sub + 1;
+        for (int j = sub + 1; j < sizes.length; j++, after++) {
+            copy[after] = node[j];
+            newSizes[after] = sizes[j] - 1;
+        }
+        copy[WIDTH] = newSizes;
+        return copy;
+    }
+
+    public boolean contains(E e) {
+        assert e != null : "VectorImList.contains(null)";
+        for (E x : this) {
+            if (x.equals(e))
+                return true;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return an iterator yielding the elements in list order, which reads
+     *         each leaf array once rather than calling rest()
+     */
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int next = size - 1;
+            private Object[] leaf = tail;
+            private int inLeaf = tail.length - 1;
+
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (next < 0)
+                    throw new NoSuchElementException();
+                E e = (E) leaf[inLeaf];
+                next -= 1;
+                inLeaf -= 1;
+                if (next >= 0 && inLeaf < 0) {
+                    // next is the last element of the leaf before
+                    leaf = leafFor(next);
+                    inLeaf = leaf.length - 1;
+                }
+                return e;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Compares the specified object with this list for equality. Returns
+     * <tt>true</tt> if the specified object is also a list, and the two lists
+     * have the same elements in the same order.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof ImList)) return false;
+        ImList<?> l = (ImList<?>) o;
+        if (l.size() != size) return false;
+        Iterator<?> other = l.iterator();
+        for (E e : this) {
+            if (!e.equals(other.next())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the sum of the hash codes of the elements, as for other ImLists
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (E e : this) {
+            hash += e.hashCode();
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for (E e : this) {
+            if (s.length() > 1) s.append(", ");
+            s.append(e);
+        }
+        return s.append("]").toString();
+    }
+}
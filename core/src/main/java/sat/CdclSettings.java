@@ -0,0 +1,120 @@
+package sat;
+
+import sat.heuristic.GeometricRestarts;
+import sat.heuristic.GlucoseRestarts;
+import sat.heuristic.LubyRestarts;
+import sat.heuristic.RestartPolicy;
+
+import java.util.function.Consumer;
+
+/**
+ * Tuning of the restarts and learnt clause database reduction of
+ * CdclSolver, as chosen on the command line. A CdclSettings can configure
+ * any number of solvers; each gets a restart policy of its own.
+ *
+ * By default the solver restarts glucose-style and reduces its learnt
+ * clauses first after 2000 conflicts, then 300 conflicts later each time.
+ */
+public class CdclSettings {
+    /**
+     * The restart policies.
+     */
+    public enum Restarts {
+        /** never restart */
+        NONE,
+        /** Luby sequence times the restart interval, see LubyRestarts */
+        LUBY,
+        /** runs growing by half each time from the restart interval, see GeometricRestarts */
+        GEOMETRIC,
+        /** moving averages of LBD, see GlucoseRestarts */
+        GLUCOSE
+    }
+
+    private Restarts restarts = Restarts.GLUCOSE;
+    private int restartInterval = 100;
+    private int reduceInterval = 2000;
+    private int reduceIncrement = 300;
+    private Consumer<CdclSolver> listener = null;
+
+    /**
+     * Choose the restart policy.
+     * @return this
+     */
+    public CdclSettings setRestarts(Restarts restarts) {
+        this.restarts = restarts;
+        return this;
+    }
+
+    /**
+     * Set the conflicts of the shortest run for LUBY and GEOMETRIC restarts.
+     * @return this
+     */
+    public CdclSettings setRestartInterval(int restartInterval) {
+        this.restartInterval = restartInterval;
+        return this;
+    }
+
+    /**
+     * Set the conflicts before the first reduction of the learnt clauses;
+     * 0 turns reduction off.
+     * @return this
+     */
+    public CdclSettings setReduceInterval(int reduceInterval) {
+        this.reduceInterval = reduceInterval;
+        return this;
+    }
+
+    /**
+     * Set how many more conflicts each reduction waits than the one before.
+     * @return this
+     */
+    public CdclSettings setReduceIncrement(int reduceIncrement) {
+        this.reduceIncrement = reduceIncrement;
+        return this;
+    }
+
+    /**
+     * Have listener called with every solver these settings configure once
+     * it has finished, for its statistics.
+     * @return this
+     */
+    public CdclSettings setListener(Consumer<CdclSolver> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public Restarts getRestarts() {
+        return restarts;
+    }
+
+    public int getReduceInterval() {
+        return reduceInterval;
+    }
+
+    public int getReduceIncrement() {
+        return reduceIncrement;
+    }
+
+    /**
+     * @return a new policy of the chosen kind, or null for NONE
+     */
+    public RestartPolicy newRestartPolicy() {
+        switch (restarts) {
+            case LUBY:
+                return new LubyRestarts(restartInterval);
+            case GEOMETRIC:
+                return new GeometricRestarts(restartInterval, 1.5);
+            case GLUCOSE:
+                return new GlucoseRestarts();
+            default:
+                return null;
+        }
+    }
+
+    // Tell the listener, if any, that solver has finished
+    void finished(CdclSolver solver) {
+        if (listener != null) {
+            listener.accept(solver);
+        }
+    }
+}
@@ -0,0 +1,782 @@
+package sat;
+
+import sat.core.IntFormula;
+import sat.core.IntVec;
+import sat.core.Lits;
+import sat.heuristic.DecisionHeuristic;
+import sat.heuristic.RestartPolicy;
+import sat.heuristic.VsidsHeuristic;
+import sat.io.DratWriter;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Conflict-driven clause learning solver.
+ *
+ * Assignments are recorded on a trail, and every implied literal remembers
+ * the clause that forced it, which together form the implication graph. When
+ * a clause becomes false, the conflict is analysed back to its first unique
+ * implication point (1-UIP), the resulting clause is learnt, and the search
+ * jumps straight back to the second highest decision level in that clause
+ * rather than undoing one decision at a time.
+ *
+ * Unit propagation uses two watched literals per clause: the first two
+ * literals of a clause are watched, and watches[l] lists the clauses watching
+ * l. Making a literal true only visits the clauses watching its negation, and
+ * since the watches stay valid when assignments are undone, backtracking does
+ * not touch the clauses at all.
+ *
+ * Given a DratWriter, the solver records every clause it learns, and the
+ * empty clause when it finds the formula unsatisfiable, which makes a DRAT
+ * proof of unsatisfiability: each learnt clause follows from the clauses
+ * before it by unit propagation.
+ *
+ * Decisions are left to a DecisionHeuristic, by default EVSIDS with phase
+ * saving (see VsidsHeuristic): every variable met while analysing a conflict
+ * is bumped, and the heuristic is told of every assignment undone.
+ *
+ * Every learnt clause is kept with its LBD, the number of decision levels
+ * among its literals when it was learnt, and an activity bumped whenever it
+ * takes part in a conflict. A RestartPolicy, fed the LBD of each learnt
+ * clause, decides when to undo every decision and start over. Periodically
+ * the half of the learnt clauses that look least useful, by highest LBD and
+ * then lowest activity, are deleted; glue clauses (LBD 2 or less), binary
+ * clauses and clauses that are the reason of a current assignment are
+ * always kept. Both are tuned by CdclSettings.
+ *
+ * The solver runs on an IntFormula and is incremental: solve() may be called
+ * any number of times, with clauses added in between by addClause() and
+ * with assumptions, literals that must hold for that call only. Learnt
+ * clauses, activities, saved phases and the restart state all carry over
+ * from one call to the next, so repeated queries on the same formula do not
+ * start from scratch. Assumptions are decided first, one per decision level,
+ * so every clause learnt under them still follows from the clauses alone;
+ * when they cannot all hold, getFailedAssumptions() gives a subset of them
+ * that cannot. Clauses and assumptions may bring in new variables, numbered
+ * after those of the formula, and the per-variable arrays grow to match.
+ * Given a stop flag, the solver checks the flag at every step
+ * and gives up with a CancellationException once it is set.
+ */
+public class CdclSolver {
+    private static final int NO_REASON = -1;
+    private static final double CLAUSE_DECAY = 0.999;
+    private static final double RESCALE_LIMIT = 1e20;
+
+    private final IntFormula formula;
+    private int numVariables; // those of the formula, then any that added clauses or assumptions bring in
+
+    // Clauses, original first and then learnt ones; null once deleted
+    private int[][] clauses = new int[16][];
+    private int numClauses = 0;
+    private int[] clauseLbd = new int[16]; // 0 for original clauses
+    private double[] clauseActivity = new double[16];
+    private double clauseIncrement = 1;
+
+    // watches[l] lists the clauses whose first or second literal is l
+    private IntVec[] watches;
+
+    private byte[] assigns;
+    private int[] level;
+    private int[] reason;
+    private int[] trail;
+    private int trailSize = 0;
+    private int qhead = 0; // trail[qhead..] still have to be propagated
+    private final IntVec trailLim = new IntVec(); // trail size at the start of each decision level
+
+    private boolean[] seen; // scratch for analyze
+    private int[] levelStamps; // scratch for computing LBDs
+    private int lbdStamp = 0;
+    private final IntVec learnt = new IntVec();
+    private DecisionHeuristic heuristic = new VsidsHeuristic();
+
+    private boolean ok = true; // false once the formula is known to be unsatisfiable
+    private boolean initialised = false; // whether the heuristic has been given the formula
+    private final IntVec failed = new IntVec(); // assumptions that failed in the last solve
+    private boolean refuted = false; // whether the proof has its empty clause
+
+    private long conflicts = 0;
+    private long decisions = 0;
+    private long propagations = 0;
+    private long learnts = 0;
+    private long restarts = 0;
+    private long reductions = 0;
+    private long deleted = 0;
+
+    private RestartPolicy restartPolicy;
+    private int reduceInterval;
+    private int reduceIncrement;
+    private long nextReduce;
+
+    private AtomicBoolean stop = null;
+
+    private DratWriter proof = null;
+    private int[] dimacs; // DIMACS number of each literal, for the proof
+    private int[] proofClause;
+
+    public CdclSolver(IntFormula formula) {
+        this.formula = formula;
+        watches = new IntVec[0];
+        assigns = new byte[0];
+        level = new int[0];
+        reason = new int[0];
+        trail = new int[0];
+        seen = new boolean[0];
+        levelStamps = new int[1];
+        grow(formula.getNumVariables());
+        setSettings(new CdclSettings());
+
+        int[] literals = formula.getLiterals();
+        for (int i = 0; i < formula.getNumClauses() && ok; i++) {
+            addSimplified(Arrays.copyOfRange(literals, formula.clauseStart(i), formula.clauseEnd(i)));
+        }
+    }
+
+    /**
+     * Record the proof of unsatisfiability in proof while solving.
+     * @return this
+     */
+    public CdclSolver setProof(DratWriter proof) {
+        this.proof = proof;
+        dimacs = new int[0];
+        numberForProof();
+        return this;
+    }
+
+    /*
+     * DIMACS numbers for the literals that have none yet. The variables of
+     * the formula are numbered as in its file, and the ones added later
+     * after the highest number in use.
+     */
+    private void numberForProof() {
+        int done = dimacs.length;
+        int top = 0;
+        for (int lit = 0; lit < done; lit++) {
+            top = Math.max(top, dimacs[lit]);
+        }
+        dimacs = Arrays.copyOf(dimacs, 2 * numVariables);
+        for (int lit = done; lit < dimacs.length; lit++) {
+            if (Lits.var(lit) < formula.getNumVariables()) {
+                dimacs[lit] = formula.toDimacs(lit);
+                top = Math.max(top, dimacs[lit]);
+            }
+            else {
+                int number = Lits.isNegative(lit) ? dimacs[lit - 1] : ++top;
+                dimacs[lit] = Lits.isNegative(lit) ? -number : number;
+            }
+        }
+        proofClause = new int[numVariables];
+    }
+
+    /*
+     * Make room for the variables below n, which start out unassigned and
+     * in no clause.
+     */
+    private void grow(int n) {
+        if (n <= numVariables) {
+            return;
+        }
+        watches = Arrays.copyOf(watches, 2 * n);
+        for (int l = 2 * numVariables; l < watches.length; l++) {
+            watches[l] = new IntVec();
+        }
+        assigns = Arrays.copyOf(assigns, n);
+        level = Arrays.copyOf(level, n);
+        reason = Arrays.copyOf(reason, n);
+        trail = Arrays.copyOf(trail, n);
+        seen = Arrays.copyOf(seen, n);
+        levelStamps = Arrays.copyOf(levelStamps, n + 1);
+        numVariables = n;
+        if (initialised) {
+            heuristic.grow(n);
+        }
+        if (proof != null) {
+            numberForProof();
+        }
+    }
+
+    // Grow to hold the variables of lits
+    private void growFor(int[] lits) {
+        int n = numVariables;
+        for (int lit : lits) {
+            if (lit < 0) {
+                throw new IllegalArgumentException("Literal " + lit + " is not a literal");
+            }
+            n = Math.max(n, Lits.var(lit) + 1);
+        }
+        grow(n);
+    }
+
+    /**
+     * Choose decisions with heuristic rather than EVSIDS. Must be called
+     * before solve().
+     * @return this
+     */
+    public CdclSolver setHeuristic(DecisionHeuristic heuristic) {
+        this.heuristic = heuristic;
+        initialised = false;
+        return this;
+    }
+
+    /**
+     * Use EVSIDS with starting activities and phases drawn at random from
+     * seed, so that solvers with different seeds search differently.
+     * @return this
+     */
+    public CdclSolver setSeed(long seed) {
+        return setHeuristic(new VsidsHeuristic(0.95, new Random(seed)));
+    }
+
+    /**
+     * Restart and reduce the learnt clauses as settings say. Must be called
+     * before solve().
+     * @return this
+     */
+    public CdclSolver setSettings(CdclSettings settings) {
+        restartPolicy = settings.newRestartPolicy();
+        reduceInterval = settings.getReduceInterval();
+        reduceIncrement = settings.getReduceIncrement();
+        nextReduce = reduceInterval > 0 ? reduceInterval : Long.MAX_VALUE;
+        return this;
+    }
+
+    /**
+     * Give up the search once stop is set.
+     * @return this
+     */
+    public CdclSolver setStop(AtomicBoolean stop) {
+        this.stop = stop;
+        return this;
+    }
+
+    /**
+     * Search for a satisfying assignment.
+     *
+     * @return a model indexed by variable, with every variable set to
+     *         Lits.TRUE or Lits.FALSE, or null if the formula is unsatisfiable
+     * @throws CancellationException if the stop flag was set
+     */
+    public byte[] solve() {
+        return solve(new int[0]);
+    }
+
+    /**
+     * Search for a satisfying assignment in which every literal of
+     * assumptions is true. Afterwards the solver is back at decision level
+     * 0, ready for more clauses or another call. Assumptions may bring in
+     * variables beyond those of the formula, as addClause() does.
+     *
+     * @return a model indexed by variable, with every variable set to
+     *         Lits.TRUE or Lits.FALSE, or null if there is none, in which
+     *         case getFailedAssumptions() tells which assumptions are to blame
+     * @throws CancellationException if the stop flag was set
+     */
+    public byte[] solve(int... assumptions) {
+        failed.clear();
+        growFor(assumptions);
+        if (!ok) {
+            refute();
+            return null;
+        }
+        if (!initialised) {
+            heuristic.init(formula);
+            if (numVariables > formula.getNumVariables()) {
+                heuristic.grow(numVariables);
+            }
+            initialised = true;
+        }
+        try {
+            return search(assumptions);
+        }
+        finally {
+            cancelUntil(0);
+        }
+    }
+
+    private byte[] search(int[] assumptions) {
+        while (true) {
+            if (stop != null && stop.get()) {
+                throw new CancellationException();
+            }
+            int conflict = propagate();
+            if (conflict != NO_REASON) {
+                conflicts += 1;
+                if (decisionLevel() == 0) {
+                    ok = false;
+                    refute();
+                    return null;
+                }
+                int backtrackLevel = analyze(conflict);
+                cancelUntil(backtrackLevel);
+                int lbd = learn();
+                heuristic.decay();
+                clauseIncrement /= CLAUSE_DECAY;
+                if (restartPolicy != null && restartPolicy.conflict(lbd) && decisionLevel() > 0) {
+                    restarts += 1;
+                    cancelUntil(0);
+                }
+                if (conflicts >= nextReduce) {
+                    reduceLearnts();
+                    nextReduce = conflicts + reduceInterval + reduceIncrement * reductions;
+                }
+            }
+            else {
+                // Decision level i + 1 belongs to assumptions[i]
+                int next = -1;
+                while (next == -1 && decisionLevel() < assumptions.length) {
+                    int p = assumptions[decisionLevel()];
+                    byte value = value(p);
+                    if (value == Lits.TRUE) {
+                        trailLim.push(trailSize); // holds already, an empty level
+                    }
+                    else if (value == Lits.FALSE) {
+                        analyzeFinal(p);
+                        return null;
+                    }
+                    else {
+                        next = p;
+                    }
+                }
+                if (next == -1) {
+                    next = heuristic.pick(assigns);
+                    if (next == -1) {
+                        // Every variable assigned without conflict
+                        return Arrays.copyOf(assigns, numVariables);
+                    }
+                    decisions += 1;
+                }
+                trailLim.push(trailSize);
+                enqueue(next, NO_REASON);
+            }
+        }
+    }
+
+    /**
+     * @return assumptions given to the last solve() that cannot all hold
+     *         together, if it found no model; empty if the formula is
+     *         unsatisfiable whatever the assumptions
+     */
+    public int[] getFailedAssumptions() {
+        return failed.toArray();
+    }
+
+    /**
+     * Add a clause to the formula between calls to solve(). Duplicate
+     * literals and literals false at decision level 0 are dropped. A
+     * variable numbered past those of the formula is new: the solver grows
+     * to hold it and every variable below it. A proof is only checked
+     * against the clauses of the IntFormula, so while recording one, add
+     * only clauses that follow from those; new variables are numbered in it
+     * after the highest DIMACS number of the formula.
+     *
+     * @param clause literals in the encoding of sat.core.Lits
+     * @return false if the formula is now known to be unsatisfiable
+     * @throws IllegalArgumentException if a literal is negative
+     */
+    public boolean addClause(int... clause) {
+        cancelUntil(0);
+        growFor(clause);
+        IntVec lits = new IntVec(clause.length);
+        boolean satisfied = false;
+        for (int lit : clause) {
+            int var = Lits.var(lit);
+            if (value(lit) == Lits.TRUE) {
+                satisfied = true;
+            }
+            else if (value(lit) == Lits.UNDEFINED && !seen[var]) {
+                seen[var] = true;
+                lits.push(lit);
+            }
+            else if (value(lit) == Lits.UNDEFINED) {
+                // Seen before: a duplicate, or the clause is a tautology
+                for (int i = 0; i < lits.size(); i++) {
+                    satisfied |= lits.get(i) == Lits.negate(lit);
+                }
+            }
+        }
+        for (int i = 0; i < lits.size(); i++) {
+            seen[Lits.var(lits.get(i))] = false;
+        }
+        if (ok && !satisfied) {
+            addSimplified(lits.toArray());
+        }
+        return ok;
+    }
+
+    // Add a clause at decision level 0 that has no literal false there
+    private void addSimplified(int[] clause) {
+        if (clause.length == 0) {
+            ok = false;
+        }
+        else if (clause.length == 1) {
+            byte value = value(clause[0]);
+            if (value == Lits.FALSE) {
+                ok = false;
+            }
+            else if (value == Lits.UNDEFINED) {
+                enqueue(clause[0], NO_REASON);
+            }
+        }
+        else {
+            attach(clause);
+        }
+    }
+
+    // Store a clause and watch its first two literals, returning its index
+    private int attach(int[] clause) {
+        if (numClauses == clauses.length) {
+            clauses = Arrays.copyOf(clauses, clauses.length * 2);
+            clauseLbd = Arrays.copyOf(clauseLbd, clauses.length);
+            clauseActivity = Arrays.copyOf(clauseActivity, clauses.length);
+        }
+        int index = numClauses++;
+        clauses[index] = clause;
+        watches[clause[0]].push(index);
+        watches[clause[1]].push(index);
+        return index;
+    }
+
+    private byte value(int lit) {
+        return Lits.value(assigns, lit);
+    }
+
+    private int decisionLevel() {
+        return trailLim.size();
+    }
+
+    // Make lit true, recording the clause that forced it
+    private void enqueue(int lit, int from) {
+        int var = Lits.var(lit);
+        assigns[var] = Lits.isNegative(lit) ? Lits.FALSE : Lits.TRUE;
+        level[var] = decisionLevel();
+        reason[var] = from;
+        trail[trailSize++] = lit;
+    }
+
+    /*
+     * Unit propagation with two watched literals. When a literal becomes true,
+     * each clause watching its negation either is satisfied by its other
+     * watch, moves the watch to another literal that is not false, or has
+     * become unit (its other watch is implied) or false (a conflict).
+     * Returns the index of a false clause, or NO_REASON if there is none.
+     */
+    private int propagate() {
+        while (qhead < trailSize) {
+            int falseLit = Lits.negate(trail[qhead++]);
+            propagations += 1;
+            IntVec ws = watches[falseLit];
+            int i = 0;
+            int j = 0;
+            while (i < ws.size()) {
+                int index = ws.get(i++);
+                int[] clause = clauses[index];
+
+                // Make sure the false literal is clause[1]
+                if (clause[0] == falseLit) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLit;
+                }
+                if (value(clause[0]) == Lits.TRUE) {
+                    ws.set(j++, index);
+                    continue;
+                }
+
+                // Look for a new literal to watch
+                boolean moved = false;
+                for (int k = 2; k < clause.length; k++) {
+                    if (value(clause[k]) != Lits.FALSE) {
+                        clause[1] = clause[k];
+                        clause[k] = falseLit;
+                        watches[clause[1]].push(index);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+
+                // Clause is unit or false under the current assignment
+                ws.set(j++, index);
+                if (value(clause[0]) == Lits.FALSE) {
+                    while (i < ws.size()) {
+                        ws.set(j++, ws.get(i++));
+                    }
+                    ws.shrink(j);
+                    qhead = trailSize;
+                    return index;
+                }
+                enqueue(clause[0], index);
+            }
+            ws.shrink(j);
+        }
+        return NO_REASON;
+    }
+
+    /*
+     * 1-UIP conflict analysis. Resolves the conflict clause with the reasons
+     * of its literals assigned at the current level, walking the trail
+     * backwards, until one literal of the current level is left. Leaves the
+     * learnt clause in learnt, with the asserting literal first and a literal
+     * of the backtrack level second.
+     * Returns the level to backtrack to.
+     */
+    private int analyze(int conflict) {
+        learnt.clear();
+        learnt.push(-1); // room for the asserting literal
+        int pathCount = 0;
+        int p = -1;
+        int index = trailSize - 1;
+        int from = conflict;
+
+        do {
+            if (clauseLbd[from] > 0) {
+                bumpClause(from);
+            }
+            for (int lit : clauses[from]) {
+                if (lit == p) {
+                    continue;
+                }
+                int var = Lits.var(lit);
+                if (!seen[var] && level[var] > 0) {
+                    seen[var] = true;
+                    heuristic.bump(var);
+                    if (level[var] >= decisionLevel()) {
+                        pathCount += 1;
+                    }
+                    else {
+                        learnt.push(lit);
+                    }
+                }
+            }
+            // Next literal of the current level to resolve on
+            while (!seen[Lits.var(trail[index])]) {
+                index -= 1;
+            }
+            p = trail[index];
+            index -= 1;
+            from = reason[Lits.var(p)];
+            seen[Lits.var(p)] = false;
+            pathCount -= 1;
+        } while (pathCount > 0);
+        learnt.set(0, Lits.negate(p));
+
+        int backtrackLevel = 0;
+        for (int i = 1; i < learnt.size(); i++) {
+            int var = Lits.var(learnt.get(i));
+            seen[var] = false;
+            if (level[var] > backtrackLevel) {
+                backtrackLevel = level[var];
+                int swap = learnt.get(1);
+                learnt.set(1, learnt.get(i));
+                learnt.set(i, swap);
+            }
+        }
+        return backtrackLevel;
+    }
+
+    /*
+     * Add the clause left by analyze and assert its first literal.
+     * Returns the LBD of the clause.
+     */
+    private int learn() {
+        learnts += 1;
+        lbdStamp += 1;
+        int lbd = 0;
+        for (int i = 0; i < learnt.size(); i++) {
+            int l = level[Lits.var(learnt.get(i))];
+            if (levelStamps[l] != lbdStamp) {
+                levelStamps[l] = lbdStamp;
+                lbd += 1;
+            }
+        }
+        if (proof != null) {
+            for (int i = 0; i < learnt.size(); i++) {
+                proofClause[i] = dimacs[learnt.get(i)];
+            }
+            proof.add(proofClause, learnt.size());
+        }
+        if (learnt.size() == 1) {
+            enqueue(learnt.get(0), NO_REASON);
+        }
+        else {
+            int index = attach(learnt.toArray());
+            clauseLbd[index] = lbd;
+            clauseActivity[index] = 0;
+            bumpClause(index);
+            enqueue(learnt.get(0), index);
+        }
+        return lbd;
+    }
+
+    private void bumpClause(int index) {
+        clauseActivity[index] += clauseIncrement;
+        if (clauseActivity[index] > RESCALE_LIMIT) {
+            for (int i = 0; i < numClauses; i++) {
+                clauseActivity[i] /= RESCALE_LIMIT;
+            }
+            clauseIncrement /= RESCALE_LIMIT;
+        }
+    }
+
+    /*
+     * Delete the worse half of the learnt clauses that may be deleted, by
+     * highest LBD and then lowest activity, and drop them from the watches.
+     */
+    private void reduceLearnts() {
+        reductions += 1;
+        IntVec candidates = new IntVec();
+        for (int i = 0; i < numClauses; i++) {
+            int[] clause = clauses[i];
+            if (clause != null && clauseLbd[i] > 2 && clause.length > 2 && !isLocked(i)) {
+                candidates.push(i);
+            }
+        }
+        Integer[] order = new Integer[candidates.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = candidates.get(i);
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                if (clauseLbd[a] != clauseLbd[b]) {
+                    return clauseLbd[b] - clauseLbd[a];
+                }
+                return Double.compare(clauseActivity[a], clauseActivity[b]);
+            }
+        });
+        for (int i = 0; i < order.length / 2; i++) {
+            int index = order[i];
+            if (proof != null) {
+                int[] clause = clauses[index];
+                for (int j = 0; j < clause.length; j++) {
+                    proofClause[j] = dimacs[clause[j]];
+                }
+                proof.delete(proofClause, clause.length);
+            }
+            clauses[index] = null;
+            deleted += 1;
+        }
+        for (IntVec ws : watches) {
+            int j = 0;
+            for (int i = 0; i < ws.size(); i++) {
+                if (clauses[ws.get(i)] != null) {
+                    ws.set(j++, ws.get(i));
+                }
+            }
+            ws.shrink(j);
+        }
+    }
+
+    /*
+     * Assumption p is false: leave in failed p and the assumptions that
+     * imply its negation, found by walking the trail back through the
+     * reasons. Only assumptions have been decided, so every literal
+     * without a reason above level 0 is one.
+     */
+    private void analyzeFinal(int p) {
+        failed.push(p);
+        if (decisionLevel() == 0 || level[Lits.var(p)] == 0) {
+            return;
+        }
+        seen[Lits.var(p)] = true;
+        for (int i = trailSize - 1; i >= trailLim.get(0); i--) {
+            int var = Lits.var(trail[i]);
+            if (!seen[var]) {
+                continue;
+            }
+            if (reason[var] == NO_REASON) {
+                failed.push(trail[i]);
+            }
+            else {
+                for (int lit : clauses[reason[var]]) {
+                    if (level[Lits.var(lit)] > 0) {
+                        seen[Lits.var(lit)] = true;
+                    }
+                }
+            }
+            seen[var] = false;
+        }
+    }
+
+    // End the proof, if any, with the empty clause
+    private void refute() {
+        if (proof != null && !refuted) {
+            proof.addEmpty();
+            refuted = true;
+        }
+    }
+
+    // A clause is locked while it is the reason for its first literal
+    private boolean isLocked(int index) {
+        int lit = clauses[index][0];
+        return value(lit) == Lits.TRUE && reason[Lits.var(lit)] == index;
+    }
+
+    // Undo every assignment above the given decision level
+    private void cancelUntil(int target) {
+        if (decisionLevel() <= target) {
+            return;
+        }
+        int start = trailLim.get(target);
+        for (int i = trailSize - 1; i >= start; i--) {
+            int var = Lits.var(trail[i]);
+            heuristic.unassign(var, assigns[var]);
+            assigns[var] = Lits.UNDEFINED;
+        }
+        trailSize = start;
+        qhead = start;
+        trailLim.shrink(target);
+    }
+
+    /**
+     * @return number of conflicts met so far
+     */
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * @return number of decisions made so far
+     */
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * @return number of literals propagated so far
+     */
+    public long getPropagations() {
+        return propagations;
+    }
+
+    /**
+     * @return number of clauses learnt so far, unit clauses included
+     */
+    public long getLearnt() {
+        return learnts;
+    }
+
+    /**
+     * @return number of restarts so far
+     */
+    public long getRestarts() {
+        return restarts;
+    }
+
+    /**
+     * @return number of times the learnt clauses were reduced so far
+     */
+    public long getReductions() {
+        return reductions;
+    }
+
+    /**
+     * @return number of learnt clauses deleted so far
+     */
+    public long getDeleted() {
+        return deleted;
+    }
+}
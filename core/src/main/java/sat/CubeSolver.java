@@ -0,0 +1,160 @@
+package sat;
+
+import immutable.ImList;
+import sat.env.Bool;
+import sat.env.Variable;
+import sat.formula.Clause;
+import sat.formula.Formula;
+import sat.formula.Literal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cube and conquer: the DPLL of SATSolver with its top decisions split over
+ * a ForkJoinPool.
+ *
+ * The search follows SATSolver.solve, substituting unit clauses and branching
+ * on a literal of the smallest clause, down to depth decisions. Each branch
+ * of a decision above that depth is a subtask of its own with its own copy
+ * of the environment, so the two sides are searched in parallel and idle
+ * workers steal whole subtrees. At the cutoff depth the decisions made so
+ * far form a cube, which is finished by the sequential DPLL.
+ *
+ * The first cube found satisfiable sets a shared stop flag, and every other
+ * task gives up on it at its next step. The verdict is that of SATSolver.solve;
+ * the model may be a different one.
+ */
+public class CubeSolver {
+    private final Formula formula;
+    private int depth;
+    private final AtomicBoolean stop = new AtomicBoolean(false);
+    private final AtomicReference<HashMap<Variable, Bool>> result = new AtomicReference<HashMap<Variable, Bool>>();
+    private final AtomicInteger cubes = new AtomicInteger(0);
+
+    public CubeSolver(Formula formula) {
+        this.formula = formula;
+        // At least sixteen cubes per worker, to leave something to steal: ceil(log2(parallelism)) + 4
+        this.depth = 32 - Integer.numberOfLeadingZeros(ForkJoinPool.commonPool().getParallelism() - 1) + 4;
+    }
+
+    /**
+     * Set the number of decisions made before a cube is handed to the
+     * sequential DPLL; up to 2^depth cubes are made.
+     * Requires: depth >= 0
+     * @return this
+     */
+    public CubeSolver setDepth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    /**
+     * Solve on the common ForkJoinPool.
+     * @return an environment for which the formula evaluates to Bool.TRUE, or
+     *         null if no such environment exists.
+     */
+    public HashMap<Variable, Bool> solve() {
+        return solve(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Solve on the given pool. A CubeSolver is used once.
+     * @return an environment for which the formula evaluates to Bool.TRUE, or
+     *         null if no such environment exists.
+     */
+    public HashMap<Variable, Bool> solve(ForkJoinPool pool) {
+        pool.invoke(new Cube(formula.getClauses(), new HashMap<Variable, Bool>(), 0));
+        return result.get();
+    }
+
+    /**
+     * @return number of cubes handed to the sequential DPLL so far
+     */
+    public int getCubes() {
+        return cubes.get();
+    }
+
+    private void found(HashMap<Variable, Bool> env) {
+        if (result.compareAndSet(null, env)) {
+            stop.set(true);
+        }
+    }
+
+    private class Cube extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private ImList<Clause> clauses;
+        private final HashMap<Variable, Bool> env;
+        private final int level;
+
+        Cube(ImList<Clause> clauses, HashMap<Variable, Bool> env, int level) {
+            this.clauses = clauses;
+            this.env = env;
+            this.level = level;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                split();
+            }
+            catch (CancellationException e) {
+                // Another cube was satisfiable
+            }
+        }
+
+        private void split() {
+            if (stop.get()) {
+                return;
+            }
+            if (level == depth) {
+                cubes.incrementAndGet();
+                HashMap<Variable, Bool> solution = SATSolver.solve(clauses, env, null, null, stop);
+                if (solution != null) {
+                    found(solution);
+                }
+                return;
+            }
+
+            // Unit clauses are not decisions: substitute them here
+            Clause smallest;
+            while (true) {
+                if (clauses.isEmpty()) {
+                    found(env);
+                    return;
+                }
+                smallest = SATSolver.smallestClause(clauses);
+                if (smallest.size() > 1) {
+                    break;
+                }
+                Literal unit = smallest.chooseLiteral();
+                clauses = SATSolver.substitute(clauses, unit);
+                if (clauses == null) {
+                    return;
+                }
+                SATSolver.assign(env, unit);
+            }
+
+            Literal first = smallest.chooseLiteral();
+            List<Cube> branches = new ArrayList<Cube>(2);
+            for (Literal l : new Literal[] {first, first.getNegation()}) {
+                ImList<Clause> newClauses = SATSolver.substitute(clauses, l);
+                // substitute returns null if there's an empty Clause (unsatisfiable)
+                if (newClauses != null) {
+                    HashMap<Variable, Bool> newEnv = new HashMap<Variable, Bool>(env);
+                    SATSolver.assign(newEnv, l);
+                    branches.add(new Cube(newClauses, newEnv, level + 1));
+                }
+            }
+            invokeAll(branches);
+        }
+    }
+}
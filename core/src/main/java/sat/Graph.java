@@ -0,0 +1,605 @@
+package sat;
+
+import sat.core.IntFormula;
+import sat.core.IntVec;
+import sat.core.Lits;
+import sat.env.*;
+import sat.formula.*;
+import sat.io.DratWriter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+Solver for 2-SAT problems. It makes use of Strongly Connected Components property and the fact that (A OR B) == (~A --> B).
+The strongly connected components are generated using Tarjan's algorithm, run iteratively with an explicit stack so that
+long implication chains cannot overflow the call stack, and without building the transposed graph.
+Kosaraju's algorithm (recursive, on the graph and its transpose) is kept as an alternative, and for very large
+problems the SCCs can be found in parallel with the forward-backward algorithm of ParallelSCC.
+If a literal and its negation exist in the same strongly connected component, the 2-SAT is unsatisfiable.
+Otherwise it is satisfiable, and the implication cycle x -> ... -> ~x -> ... -> x through such a component is a
+certificate that it is not (see getUnsatCycle and writeUnsatProof).
+
+Vertices are literals in the int encoding of sat.core.Lits, so vertex v and v ^ 1 are negations of each other.
+
+The graph is incremental: addClause keeps the edges of new clauses aside, and the next solve merges them into the CSR
+arrays in one pass instead of building the graph again from the formula. solveAssuming answers queries under extra unit
+literals without touching the graph at all: the SCCs are only recomputed when clauses were added, and the assumptions are
+then just followed along their implications (see solveAssuming). Clauses and assumptions may bring in variables past
+those of the formula, which grows the vertex arrays.
+ */
+
+public class Graph {
+	// Algorithms for finding the strongly connected components
+	public enum Algorithm {
+		TARJAN, KOSARAJU, PARALLEL
+	}
+
+	private IntFormula formula;
+	private int numVertices;
+	// Edges in compressed sparse row form: the successors of v are targets[offsets[v] .. offsets[v+1]-1]
+	private int[] offsets;
+	private int[] targets;
+	private boolean[] isVertex; // Literals of the variables that occur in the formula
+	private boolean[] visited;
+	private int[] component; // Index of the SCC each vertex belongs to, numbered in topological order
+	private int numComponents = 0;
+	private int[] S; // Vertices by DFS finish time
+	private int sSize = 0;
+	private byte[] satisfiability;
+	private boolean satisfiable = true; // Assume satisfiable
+	private boolean hasEmptyClause = false;
+	private int contradiction = -1; // A literal in the same SCC as its negation, once solve finds one
+	private IntVec pending = new IntVec(); // Edges of clauses added since the CSR arrays were built, as pairs from, to
+	private boolean solved = false; // Whether satisfiability is a model of every clause added so far
+	private int[] failed = new int[0]; // Assumptions to blame when solveAssuming last returned null
+	private int[] source; // For solveAssuming: the assumption each implied literal was first reached from, or -1
+	private int[] queue; // For solveAssuming: the literals implied so far
+	private int queueSize = 0;
+
+	public Graph(Formula formula, int numVariables) {
+		this(IntFormula.fromFormula(formula));
+	}
+
+	// Builds the implication graph in two passes over the clauses: count the edges leaving each vertex, then fill them in
+	public Graph(IntFormula formula) {
+		this.formula = formula;
+		this.numVertices = formula.getNumVariables() * 2;
+		this.isVertex = new boolean[numVertices];
+		this.offsets = new int[numVertices + 1];
+		int[] literals = formula.getLiterals();
+
+		// First pass: edge counts, kept in offsets[v+1]
+		for (int i = 0; i < formula.getNumClauses(); i++) {
+			int size = formula.clauseSize(i);
+			if (size > 2) {
+				System.out.println("Not a 2SAT problem!");
+				satisfiable = false;
+				break;
+			}
+			else if (size == 0) {
+				// Trivial case: false
+				satisfiable = false;
+				hasEmptyClause = true;
+				break;
+			}
+			int start = formula.clauseStart(i);
+			for (int j = start; j < start + size; j++) {
+				// Clause (lit) is equivalent to Clause (lit, lit): one edge !lit -> lit
+				// For a clause (a OR b): edges ~a -> b and ~b -> a
+				int lit = literals[j];
+				isVertex[lit] = true;
+				isVertex[Lits.negate(lit)] = true;
+				offsets[Lits.negate(lit) + 1] += 1;
+			}
+		}
+		if (!satisfiable) {
+			targets = new int[0];
+			return;
+		}
+
+		// Prefix sums turn counts into start offsets
+		for (int v = 0; v < numVertices; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		targets = new int[offsets[numVertices]];
+
+		// Second pass: fill in the edges. offsets[v] is used as the fill position of v,
+		// which leaves it at the start of v + 1, so shift back afterwards
+		for (int i = 0; i < formula.getNumClauses(); i++) {
+			int start = formula.clauseStart(i);
+			int firstLit = literals[start];
+			if (formula.clauseSize(i) == 1) {
+				//Add edge !lit to lit
+				targets[offsets[Lits.negate(firstLit)]++] = firstLit;
+			}
+			else {
+				int secondLit = literals[start + 1];
+				targets[offsets[Lits.negate(firstLit)]++] = secondLit;
+				targets[offsets[Lits.negate(secondLit)]++] = firstLit;
+			}
+		}
+		for (int v = numVertices; v > 0; v--) {
+			offsets[v] = offsets[v - 1];
+		}
+		offsets[0] = 0;
+	}
+
+	//Constructor for a graph over the same vertices with the given edges
+	private Graph(int numVertices, boolean[] isVertex, int[] offsets, int[] targets) {
+		this.numVertices = numVertices;
+		this.isVertex = isVertex;
+		this.offsets = offsets;
+		this.targets = targets;
+	}
+
+	public HashMap<Variable, Bool> solve(){
+		return solve(Algorithm.TARJAN);
+	}
+
+	public HashMap<Variable, Bool> solve(Algorithm algorithm){
+		return solve(algorithm, ForkJoinPool.commonPool());
+	}
+
+	// Solve with the parallel SCC search on the given pool
+	public HashMap<Variable, Bool> solve(ForkJoinPool pool){
+		return solve(Algorithm.PARALLEL, pool);
+	}
+
+	private HashMap<Variable, Bool> solve(Algorithm algorithm, ForkJoinPool pool){
+		if (!findModel(algorithm, pool)) {
+			return null;
+		}
+		// Process results
+		return formula.toEnvironment(satisfiability);
+	}
+
+	// Find the SCCs and from them a model in satisfiability, returning whether there is one
+	private boolean findModel(Algorithm algorithm, ForkJoinPool pool){
+		// Not satisfiable - due to trivial case of empty clauses
+		if(satisfiable == false) {
+			return false;
+		}
+		mergePending();
+
+		if (algorithm == Algorithm.PARALLEL) {
+			generateSCC(pool);
+		}
+		else {
+			generateSCC(algorithm);
+		}
+		satisfiability = new byte[numVertices / 2];
+		for (int lit = 0; lit < numVertices; lit += 2) {
+			if (!isVertex[lit]) {
+				continue;
+			}
+			int nLit = Lits.negate(lit);
+			//Check for contradiction
+			if (component[lit] == component[nLit]) {
+				satisfiable = false;
+				contradiction = lit;
+				return false;
+			}
+			//The literal later in topological order is marked true
+			satisfiability[Lits.var(lit)] = component[lit] > component[nLit] ? Lits.TRUE : Lits.FALSE;
+		}
+		//If no contradiction occurs, it is satisfiable
+		satisfiable = true;
+		solved = true;
+		return true;
+	}
+
+	// Add a clause of at most two literals, given in the int encoding of the formula, for the next solve to take into
+	// account. The clause only adds edges, so the graph built so far stays as it is. Literals of variables past those of
+	// the formula add vertices (see growFor)
+	public void addClause(int... clause) {
+		if (clause.length > 2) {
+			throw new IllegalArgumentException("Not a 2SAT clause");
+		}
+		growFor(clause);
+		if (!satisfiable) {
+			// Known to be unsatisfiable already, and more clauses cannot change that
+			return;
+		}
+		solved = false;
+		if (clause.length == 0) {
+			satisfiable = false;
+			hasEmptyClause = true;
+			return;
+		}
+		int firstLit = clause[0];
+		int secondLit = clause[clause.length - 1];
+		isVertex[firstLit] = isVertex[Lits.negate(firstLit)] = true;
+		isVertex[secondLit] = isVertex[Lits.negate(secondLit)] = true;
+		pending.push(Lits.negate(firstLit));
+		pending.push(secondLit);
+		if (secondLit != firstLit) {
+			pending.push(Lits.negate(secondLit));
+			pending.push(firstLit);
+		}
+	}
+
+	// Make room for the vertices of lits, past those of the formula if need be. New vertices have no edges, so the SCCs
+	// and the model found so far stay valid, the new variables unassigned
+	private void growFor(int[] lits) {
+		int n = numVertices;
+		for (int lit : lits) {
+			if (lit < 0) {
+				throw new IllegalArgumentException("Literal " + lit + " is not a literal");
+			}
+			n = Math.max(n, (Lits.var(lit) + 1) * 2);
+		}
+		if (n == numVertices) {
+			return;
+		}
+		offsets = Arrays.copyOf(offsets, n + 1);
+		Arrays.fill(offsets, numVertices + 1, n + 1, offsets[numVertices]);
+		isVertex = Arrays.copyOf(isVertex, n);
+		if (satisfiability != null) {
+			satisfiability = Arrays.copyOf(satisfiability, n / 2);
+		}
+		if (component != null) {
+			component = Arrays.copyOf(component, n);
+			Arrays.fill(component, numVertices, n, -1);
+		}
+		source = null;
+		queue = null;
+		numVertices = n;
+	}
+
+	// Merge the pending edges into the CSR arrays: the edges of each vertex are copied over in one block, followed by
+	// its new ones
+	private void mergePending() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		int[] newOffsets = new int[numVertices + 1];
+		for (int v = 0; v < numVertices; v++) {
+			newOffsets[v + 1] = offsets[v + 1] - offsets[v];
+		}
+		for (int i = 0; i < pending.size(); i += 2) {
+			newOffsets[pending.get(i) + 1] += 1;
+		}
+		for (int v = 0; v < numVertices; v++) {
+			newOffsets[v + 1] += newOffsets[v];
+		}
+		int[] newTargets = new int[newOffsets[numVertices]];
+		int[] fill = new int[numVertices]; // Where the next new edge of each vertex goes
+		for (int v = 0; v < numVertices; v++) {
+			int degree = offsets[v + 1] - offsets[v];
+			System.arraycopy(targets, offsets[v], newTargets, newOffsets[v], degree);
+			fill[v] = newOffsets[v] + degree;
+		}
+		for (int i = 0; i < pending.size(); i += 2) {
+			newTargets[fill[pending.get(i)]++] = pending.get(i + 1);
+		}
+		offsets = newOffsets;
+		targets = newTargets;
+		pending.clear();
+	}
+
+	// Solve with every literal of assumptions true, without adding them to the graph. A satisfiable 2-SAT formula stays
+	// satisfiable under some literals unless the literals they imply include a literal and its negation, and then any
+	// model with the implied literals made true is a model: a clause with a false literal has its other literal implied.
+	// So past the SCCs, which are only recomputed if clauses were added, this costs a BFS over the implications of the
+	// assumptions. Returns a model indexed by variable, with the variables of no clause left Lits.UNDEFINED unless
+	// assumed, or null, and then getFailedAssumptions tells why
+	public byte[] solveAssuming(int... assumptions) {
+		failed = new int[0];
+		growFor(assumptions);
+		if (!solved && !findModel(Algorithm.TARJAN, null)) {
+			return null;
+		}
+		if (source == null) {
+			source = new int[numVertices];
+			Arrays.fill(source, -1);
+			queue = new int[numVertices];
+		}
+		boolean consistent = propagateAssumptions(assumptions);
+		byte[] model = consistent ? Arrays.copyOf(satisfiability, numVertices / 2) : null;
+		for (int i = 0; i < queueSize; i++) {
+			int lit = queue[i];
+			if (consistent) {
+				model[Lits.var(lit)] = Lits.isNegative(lit) ? Lits.FALSE : Lits.TRUE;
+			}
+			// Leave source clear for the next call
+			source[lit] = -1;
+		}
+		return model;
+	}
+
+	// BFS over the implications of each assumption in turn, leaving the literals reached in queue. Returns false, with
+	// the assumptions to blame in failed, as soon as a literal and its negation are both reached
+	private boolean propagateAssumptions(int[] assumptions) {
+		queueSize = 0;
+		int head = 0;
+		for (int k = 0; k < assumptions.length; k++) {
+			int lit = assumptions[k];
+			if (source[lit] != -1) {
+				continue;
+			}
+			if (source[Lits.negate(lit)] != -1) {
+				failed = blame(assumptions, source[Lits.negate(lit)], k);
+				return false;
+			}
+			source[lit] = k;
+			queue[queueSize++] = lit;
+			// Everything reached now is implied by assumption k
+			while (head < queueSize) {
+				int v = queue[head++];
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					int w = targets[i];
+					if (source[w] != -1) {
+						continue;
+					}
+					if (source[Lits.negate(w)] != -1) {
+						failed = blame(assumptions, source[Lits.negate(w)], k);
+						return false;
+					}
+					source[w] = k;
+					queue[queueSize++] = w;
+				}
+			}
+		}
+		return true;
+	}
+
+	// Assumptions j and k imply a literal and its negation between them
+	private static int[] blame(int[] assumptions, int j, int k) {
+		return j == k ? new int[] {assumptions[k]} : new int[] {assumptions[j], assumptions[k]};
+	}
+
+	// The assumptions given to the last solveAssuming that cannot all hold, at most two of them, if it returned null;
+	// empty if the formula is unsatisfiable whatever the assumptions
+	public int[] getFailedAssumptions() {
+		return failed;
+	}
+
+
+	// The implication cycle x -> ... -> ~x -> ... -> x through the SCC in which solve found a literal x and its
+	// negation, as literals starting and ending with x; null if solve has not found the problem unsatisfiable that way
+	public Literal[] getUnsatCycle() {
+		if (contradiction == -1) {
+			return null;
+		}
+		int[] there = path(contradiction, Lits.negate(contradiction));
+		int[] back = path(Lits.negate(contradiction), contradiction);
+		Literal[] cycle = new Literal[there.length + back.length - 1];
+		for (int i = 0; i < there.length; i++) {
+			cycle[i] = formula.toLiteral(there[i]);
+		}
+		for (int i = 1; i < back.length; i++) {
+			cycle[there.length + i - 1] = formula.toLiteral(back[i]);
+		}
+		return cycle;
+	}
+
+	// Write a DRAT refutation of the formula after solve has returned null. With x -> ... -> ~x -> ... -> x, assuming ~x
+	// propagates along the path back to x, so the unit clause (x) follows by unit propagation, and then x propagates to ~x
+	public void writeUnsatProof(DratWriter proof) {
+		if (!hasEmptyClause) {
+			if (contradiction == -1) {
+				throw new IllegalStateException("No refutation found");
+			}
+			proof.add(new int[] {formula.toDimacs(contradiction)}, 1);
+		}
+		proof.addEmpty();
+	}
+
+	// Shortest path of implications from one literal to another in the same SCC, found by BFS within the SCC
+	private int[] path(int from, int to) {
+		int[] parent = new int[numVertices];
+		Arrays.fill(parent, -1);
+		int[] queue = new int[numVertices];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = from;
+		parent[from] = from;
+		while (parent[to] == -1) {
+			int v = queue[head++];
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int w = targets[i];
+				if (parent[w] == -1 && component[w] == component[from]) {
+					parent[w] = v;
+					queue[tail++] = w;
+				}
+			}
+		}
+		int length = 1;
+		for (int v = to; v != from; v = parent[v]) {
+			length += 1;
+		}
+		int[] result = new int[length];
+		for (int v = to, i = length - 1; i >= 0; v = parent[v], i--) {
+			result[i] = v;
+		}
+		return result;
+	}
+
+	//Depth-First Search recursive.
+	//When finding SCCs, every vertex reached is put in the current component
+	public void DFS_visit(Graph graph, int s, boolean isSCC) {
+		if (isSCC) { //Check if we are finding SCC
+			component[s] = numComponents - 1;
+		}
+
+		// Perform DFS on neighbours
+		for (int i = graph.offsets[s]; i < graph.offsets[s + 1]; i++) {
+			int v = graph.targets[i];
+			if (!graph.visited[v]) { //If the literal is already traversed, do nothing.
+				graph.visited[v] = true;
+				DFS_visit(graph, v, isSCC);
+			}
+		}
+		//Generate stack based on DFS finish time
+		if (!isSCC) {
+			S[sSize++] = s;
+		}
+	}
+
+	// Depth-First Search implementation.
+	// isSCC checks if this is normal DFS or DFS to find SCC
+	public void DFS(Graph graph, boolean isSCC) {
+		for (int s = 0; s < numVertices; s++) {
+			if (isVertex[s] && !graph.visited[s]) {
+				graph.visited[s] = true;
+				DFS_visit(graph, s, isSCC);
+			}
+		}
+	}
+
+	public Graph getTranspose(){
+		//Transpose the graph by flipping the direction of the edges, counting edges into each vertex first
+		int[] tOffsets = new int[numVertices + 1];
+		for (int i = 0; i < targets.length; i++) {
+			tOffsets[targets[i] + 1] += 1;
+		}
+		for (int v = 0; v < numVertices; v++) {
+			tOffsets[v + 1] += tOffsets[v];
+		}
+		int[] tTargets = new int[targets.length];
+		for (int lit1 = 0; lit1 < numVertices; lit1++) {
+			for (int i = offsets[lit1]; i < offsets[lit1 + 1]; i++) {
+				tTargets[tOffsets[targets[i]]++] = lit1;
+			}
+		}
+		for (int v = numVertices; v > 0; v--) {
+			tOffsets[v] = tOffsets[v - 1];
+		}
+		tOffsets[0] = 0;
+		return new Graph(numVertices, isVertex, tOffsets, tTargets);
+	}
+
+	public void generateSCC(){ //Create Strongly Connected Component
+		generateSCC(Algorithm.TARJAN);
+	}
+
+	// Fills component with the SCC of each vertex, numbered in topological order
+	public void generateSCC(Algorithm algorithm){
+		if (algorithm == Algorithm.TARJAN) {
+			generateSCCTarjan();
+		}
+		else if (algorithm == Algorithm.PARALLEL) {
+			generateSCC(ForkJoinPool.commonPool());
+		}
+		else {
+			generateSCCKosaraju();
+		}
+	}
+
+	// Forward-backward SCC search on the given pool, see ParallelSCC
+	public void generateSCC(ForkJoinPool pool){
+		Graph transposedGraph = this.getTranspose();
+		ParallelSCC scc = new ParallelSCC(numVertices, isVertex, offsets, targets,
+				transposedGraph.offsets, transposedGraph.targets);
+		component = scc.run(pool);
+		numComponents = scc.getNumComponents();
+	}
+
+	// Iterative Tarjan: one DFS, an explicit call stack, and index/lowlink arrays
+	private void generateSCCTarjan(){
+		int[] index = new int[numVertices]; // DFS discovery order, from 1; 0 if not yet visited
+		int[] lowlink = new int[numVertices];
+		int[] stack = new int[numVertices]; // Vertices visited whose SCC is not yet complete
+		int stackSize = 0;
+		int[] callStack = new int[numVertices]; // DFS path, replacing recursion
+		int[] edgePos = new int[numVertices]; // Next edge to follow for each vertex on the DFS path
+		int callSize = 0;
+		int counter = 0;
+
+		component = new int[numVertices];
+		Arrays.fill(component, -1); // -1 while the vertex has no SCC yet, so is on the stack if visited
+		numComponents = 0;
+
+		for (int s = 0; s < numVertices; s++) {
+			if (!isVertex[s] || index[s] != 0) {
+				continue;
+			}
+			index[s] = lowlink[s] = ++counter;
+			stack[stackSize++] = s;
+			edgePos[s] = offsets[s];
+			callStack[callSize++] = s;
+
+			while (callSize > 0) {
+				int v = callStack[callSize - 1];
+				if (edgePos[v] < offsets[v + 1]) {
+					int w = targets[edgePos[v]++];
+					if (index[w] == 0) {
+						// Descend into w
+						index[w] = lowlink[w] = ++counter;
+						stack[stackSize++] = w;
+						edgePos[w] = offsets[w];
+						callStack[callSize++] = w;
+					}
+					else if (component[w] == -1 && index[w] < lowlink[v]) {
+						// w is on the stack
+						lowlink[v] = index[w];
+					}
+				}
+				else {
+					// All edges of v followed: return to the caller
+					callSize -= 1;
+					if (callSize > 0) {
+						int u = callStack[callSize - 1];
+						if (lowlink[v] < lowlink[u]) {
+							lowlink[u] = lowlink[v];
+						}
+					}
+					if (lowlink[v] == index[v]) {
+						// v is the root of an SCC: pop it off the stack
+						int w;
+						do {
+							w = stack[--stackSize];
+							component[w] = numComponents;
+						} while (w != v);
+						numComponents += 1;
+					}
+				}
+			}
+		}
+
+		// Tarjan completes SCCs in reverse topological order
+		for (int v = 0; v < numVertices; v++) {
+			if (component[v] != -1) {
+				component[v] = numComponents - 1 - component[v];
+			}
+		}
+	}
+
+	private void generateSCCKosaraju(){
+		//Start DFS on current graph to generate finish time.
+		visited = new boolean[numVertices];
+		S = new int[numVertices];
+		sSize = 0;
+		this.DFS(this, false);
+		Graph transposedGraph = this.getTranspose();
+		transposedGraph.visited = new boolean[numVertices];
+		component = new int[numVertices];
+		numComponents = 0;
+		//Traverse through the vertex in topological order of graph G. Done by popping from DFS finish-time stack
+		while (sSize > 0){
+			int v = S[--sSize];
+			if (!transposedGraph.visited[v]) {
+				transposedGraph.visited[v] = true;
+				numComponents += 1; //Start the next SCC
+				DFS_visit(transposedGraph, v, true);
+			}
+		}
+	}
+
+	public void display() {
+		// Display the graph as an adjacency list
+		for (int lit = 0; lit < numVertices; lit++) {
+			if (offsets[lit] == offsets[lit + 1]) {
+				continue;
+			}
+			System.out.print(formula.toLiteral(lit) + ": ");
+
+			for (int i = offsets[lit]; i < offsets[lit + 1]; i++) {
+				System.out.print(formula.toLiteral(targets[i]) + ", ");
+			}
+			System.out.println();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package sat;
+
+import sat.core.IntFormula;
+import sat.core.Lits;
+import sat.env.*;
+import sat.formula.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Answers many queries about the same formula, each under a few extra
+ * constraints, without solving it from scratch every time.
+ *
+ * Clauses given to addClause are added for good; assumptions given to solve
+ * hold for that call only, and when they cannot hold, getFailedAssumptions
+ * tells which of them are to blame. While every clause has at most two
+ * literals the queries go to the 2-SAT Graph, which keeps its implication
+ * graph and SCCs between calls; from the first wider clause on, or if the
+ * formula has one, they go to a CdclSolver, which keeps its learnt clauses
+ * and heuristic state between calls.
+ *
+ * Clauses and assumptions may mention variables that are not in the
+ * formula: they are numbered after its own, and the solvers grow to hold them.
+ */
+public class IncrementalSolver {
+    private final IntFormula formula;
+    private Graph graph; // null once a clause has more than two literals
+    private CdclSolver cdcl;
+    private final List<int[]> added = new ArrayList<int[]>(); // clauses given to graph, for a CdclSolver to take over
+    private boolean[] occurs; // variables of the clauses added, which models bind too
+    private final List<Variable> newVariables = new ArrayList<Variable>(); // numbered from formula.getNumVariables()
+    private final HashMap<Variable, Integer> newNumbers = new HashMap<Variable, Integer>();
+    private List<Literal> failed = new ArrayList<Literal>();
+
+    public IncrementalSolver(Formula formula) {
+        this(IntFormula.fromFormula(formula));
+    }
+
+    public IncrementalSolver(IntFormula formula) {
+        this.formula = formula;
+        occurs = new boolean[formula.getNumVariables()];
+        if (formula.getDegree() <= 2) {
+            graph = new Graph(formula);
+        }
+        else {
+            cdcl = new CdclSolver(formula);
+        }
+    }
+
+    /**
+     * Add clause to the formula for every later call to solve.
+     * @return this
+     */
+    public IncrementalSolver addClause(Clause clause) {
+        int[] lits = new int[clause.size()];
+        int size = 0;
+        for (Literal l : clause) {
+            lits[size] = toLit(l);
+            int var = Lits.var(lits[size]);
+            if (var >= occurs.length) {
+                occurs = Arrays.copyOf(occurs, formula.getNumVariables() + newVariables.size());
+            }
+            occurs[var] = true;
+            size += 1;
+        }
+        if (graph != null && lits.length > 2) {
+            // No longer 2-SAT: hand the clauses over to CDCL
+            cdcl = new CdclSolver(formula);
+            for (int[] c : added) {
+                cdcl.addClause(c);
+            }
+            graph = null;
+            added.clear();
+        }
+        if (graph != null) {
+            graph.addClause(lits);
+            added.add(lits);
+        }
+        else {
+            cdcl.addClause(lits);
+        }
+        return this;
+    }
+
+    /**
+     * Solve the formula with every literal of assumptions true.
+     *
+     * @return a satisfying assignment binding every variable of the clauses
+     *         and of assumptions, or null if there is none
+     */
+    public HashMap<Variable, Bool> solve(Literal... assumptions) {
+        int[] lits = new int[assumptions.length];
+        for (int i = 0; i < assumptions.length; i++) {
+            lits[i] = toLit(assumptions[i]);
+        }
+        byte[] model;
+        int[] core;
+        if (graph != null) {
+            model = graph.solveAssuming(lits);
+            core = graph.getFailedAssumptions();
+        }
+        else {
+            model = cdcl.solve(lits);
+            core = cdcl.getFailedAssumptions();
+        }
+        failed = new ArrayList<Literal>();
+        for (int lit : core) {
+            failed.add(toLiteral(lit));
+        }
+        if (model == null) {
+            return null;
+        }
+
+        HashMap<Variable, Bool> env = formula.toEnvironment(model);
+        for (int v = 0; v < occurs.length; v++) {
+            if (occurs[v] && model[v] != Lits.UNDEFINED) {
+                env.put(getVariable(v), Lits.toBool(model[v]));
+            }
+        }
+        for (int lit : lits) {
+            env.put(getVariable(Lits.var(lit)), Lits.toBool(model[Lits.var(lit)]));
+        }
+        return env;
+    }
+
+    /**
+     * @return assumptions of the last call to solve that cannot all hold
+     *         together, if it returned null; empty if the formula is
+     *         unsatisfiable whatever the assumptions
+     */
+    public List<Literal> getFailedAssumptions() {
+        return failed;
+    }
+
+    /**
+     * @return whether queries still go to the 2-SAT Graph rather than CDCL
+     */
+    public boolean is2Sat() {
+        return graph != null;
+    }
+
+    // The int literal of l, numbering its variable after the others if it is new
+    private int toLit(Literal l) {
+        Variable v = l.getVariable();
+        int var = formula.varOf(v);
+        if (var == -1) {
+            Integer number = newNumbers.get(v);
+            if (number == null) {
+                number = formula.getNumVariables() + newVariables.size();
+                newNumbers.put(v, number);
+                newVariables.add(v);
+            }
+            var = number;
+        }
+        return Lits.make(var, l instanceof NegLiteral);
+    }
+
+    private Variable getVariable(int var) {
+        int n = formula.getNumVariables();
+        return var < n ? formula.getVariable(var) : newVariables.get(var - n);
+    }
+
+    private Literal toLiteral(int lit) {
+        PosLiteral pos = PosLiteral.make(getVariable(Lits.var(lit)));
+        return Lits.isNegative(lit) ? pos.getNegation() : pos;
+    }
+}
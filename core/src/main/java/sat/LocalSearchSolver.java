@@ -0,0 +1,353 @@
+package sat;
+
+import sat.core.IntFormula;
+import sat.core.Lits;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stochastic local search for k-SAT: WalkSAT, ProbSAT and the plain random
+ * walk used for 2-SAT.
+ *
+ * All of them repeatedly pick a random unsatisfied clause and flip one of its
+ * variables. They differ in which variable is flipped, based on its break
+ * count, the number of clauses that would become unsatisfied by the flip:
+ *   WALKSAT flips a variable with break count 0 if there is one; otherwise,
+ *     with probability noise a random variable of the clause, else one with
+ *     the lowest break count.
+ *   PROBSAT flips variable v with probability proportional to
+ *     (EPS + break(v))^-cb.
+ *   RANDOM_WALK ignores break counts and flips a variable of the clause
+ *     chosen uniformly at random.
+ *
+ * The search starts from a random assignment, or from a given partial one.
+ * Unassigned variables make none of their literals true; when a clause with
+ * unassigned variables is picked, they are set to FALSE before the flip.
+ *
+ * The set of unsatisfied clauses, the number of true literals of each clause
+ * and the break count of each variable are all maintained incrementally, so a
+ * flip costs time proportional to the number of occurrences of the flipped
+ * variable rather than the size of the formula.
+ *
+ * Local search can only ever prove satisfiability: solve returns null when
+ * the flip budget runs out. Given a stop flag, it is checked every
+ * STOP_CHECK_INTERVAL flips, and solve gives up with a CancellationException
+ * once it is set.
+ */
+public class LocalSearchSolver {
+    public enum Strategy {
+        WALKSAT, PROBSAT, RANDOM_WALK
+    }
+
+    private static final double EPS = 0.9;
+    private static final int STOP_CHECK_INTERVAL = 1024;
+
+    private final IntFormula formula;
+    private final int numVariables;
+    private final int numClauses;
+    private final int[] literals;
+
+    // The clauses containing literal l are occurs[occurStart[l] .. occurStart[l+1]-1]
+    private final int[] occurStart;
+    private final int[] occurs;
+
+    private final byte[] assigns;
+    private final int[] numTrue; // number of true literals in each clause
+    private final int[] trueXor; // xor of the true literals of each clause: the true one when there is one
+    private final int[] breakCount; // clauses each variable is the only true literal of
+
+    // Unsatisfied clauses, in no order; unsatPos[c] is the position of c, or -1
+    private final int[] unsat;
+    private final int[] unsatPos;
+    private int numUnsat = 0;
+
+    private final Random random;
+    private Strategy strategy = Strategy.WALKSAT;
+    private double noise = 0.567;
+    private double cb = 2.3;
+    private double[] weights = new double[8]; // scratch for PROBSAT
+    private long flips = 0;
+    private AtomicBoolean stop = null;
+
+    public LocalSearchSolver(IntFormula formula, long seed) {
+        this.formula = formula;
+        this.numVariables = formula.getNumVariables();
+        this.numClauses = formula.getNumClauses();
+        this.literals = formula.getLiterals();
+        this.random = new Random(seed);
+
+        // Occurrence lists, counted then filled
+        occurStart = new int[2 * numVariables + 1];
+        int numLiterals = numClauses == 0 ? 0 : formula.clauseEnd(numClauses - 1);
+        for (int j = 0; j < numLiterals; j++) {
+            occurStart[literals[j] + 1] += 1;
+        }
+        for (int l = 0; l < 2 * numVariables; l++) {
+            occurStart[l + 1] += occurStart[l];
+        }
+        occurs = new int[occurStart[2 * numVariables]];
+        int[] fill = Arrays.copyOf(occurStart, 2 * numVariables);
+        for (int c = 0; c < numClauses; c++) {
+            for (int j = formula.clauseStart(c); j < formula.clauseEnd(c); j++) {
+                occurs[fill[literals[j]]++] = c;
+            }
+        }
+
+        assigns = new byte[numVariables];
+        numTrue = new int[numClauses];
+        trueXor = new int[numClauses];
+        breakCount = new int[numVariables];
+        unsat = new int[numClauses];
+        unsatPos = new int[numClauses];
+    }
+
+    /**
+     * Choose the variable selection rule; WALKSAT by default.
+     */
+    public LocalSearchSolver setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+        return this;
+    }
+
+    /**
+     * Set the WALKSAT probability of a random rather than a greedy move.
+     * Requires: 0 <= noise <= 1
+     */
+    public LocalSearchSolver setNoise(double noise) {
+        this.noise = noise;
+        return this;
+    }
+
+    /**
+     * Set the PROBSAT exponent of the break count. 2.3 suits 3-SAT; wider
+     * clauses want larger values.
+     */
+    public LocalSearchSolver setCb(double cb) {
+        this.cb = cb;
+        return this;
+    }
+
+    /**
+     * Give up the search once stop is set.
+     */
+    public LocalSearchSolver setStop(AtomicBoolean stop) {
+        this.stop = stop;
+        return this;
+    }
+
+    /**
+     * Search from a random assignment for at most maxFlips flips.
+     *
+     * @return a model indexed by variable with every variable TRUE or FALSE,
+     *         or null if none was found within maxFlips
+     */
+    public byte[] solve(long maxFlips) {
+        byte[] initial = new byte[numVariables];
+        for (int v = 0; v < numVariables; v++) {
+            initial[v] = random.nextBoolean() ? Lits.TRUE : Lits.FALSE;
+        }
+        return solve(maxFlips, initial);
+    }
+
+    /**
+     * Search from the given assignment for at most maxFlips flips.
+     *
+     * @param initial assignment indexed by variable; UNDEFINED entries are
+     *        left unassigned until a clause containing them is picked
+     * @return a model indexed by variable, in which variables that were never
+     *         assigned are still UNDEFINED, or null if none was found within
+     *         maxFlips
+     * @throws CancellationException if the stop flag was set
+     */
+    public byte[] solve(long maxFlips, byte[] initial) {
+        for (int c = 0; c < numClauses; c++) {
+            if (formula.clauseSize(c) == 0) {
+                // Empty clause - unsolvable
+                return null;
+            }
+        }
+        System.arraycopy(initial, 0, assigns, 0, numVariables);
+        initialise();
+
+        // The budget is per call; flips counts over all of them
+        long limit = flips + maxFlips;
+        while (numUnsat > 0) {
+            if (flips >= limit) {
+                return null;
+            }
+            if (stop != null && flips % STOP_CHECK_INTERVAL == 0 && stop.get()) {
+                throw new CancellationException();
+            }
+            int clause = unsat[random.nextInt(numUnsat)];
+            assignUndefined(clause);
+            int var;
+            if (strategy == Strategy.WALKSAT) {
+                var = pickWalkSat(clause);
+            }
+            else if (strategy == Strategy.PROBSAT) {
+                var = pickProbSat(clause);
+            }
+            else {
+                var = Lits.var(literals[formula.clauseStart(clause) + random.nextInt(formula.clauseSize(clause))]);
+            }
+            flips += 1;
+            set(var, (byte) -assigns[var]);
+        }
+        return assigns.clone();
+    }
+
+    /**
+     * @return number of flips made so far, over every call to solve
+     */
+    public long getFlips() {
+        return flips;
+    }
+
+    // Compute the clause counters, break counts and unsatisfied set from scratch
+    private void initialise() {
+        numUnsat = 0;
+        Arrays.fill(breakCount, 0);
+        for (int c = 0; c < numClauses; c++) {
+            int count = 0;
+            int xor = 0;
+            for (int j = formula.clauseStart(c); j < formula.clauseEnd(c); j++) {
+                if (Lits.value(assigns, literals[j]) == Lits.TRUE) {
+                    count += 1;
+                    xor ^= literals[j];
+                }
+            }
+            numTrue[c] = count;
+            trueXor[c] = xor;
+            unsatPos[c] = -1;
+            if (count == 0) {
+                addUnsat(c);
+            }
+            else if (count == 1) {
+                breakCount[Lits.var(xor)] += 1;
+            }
+        }
+    }
+
+    private int pickWalkSat(int clause) {
+        int start = formula.clauseStart(clause);
+        int end = formula.clauseEnd(clause);
+        int best = -1;
+        int bestBreak = Integer.MAX_VALUE;
+        int ties = 0;
+        for (int j = start; j < end; j++) {
+            int var = Lits.var(literals[j]);
+            int b = breakCount[var];
+            if (b < bestBreak) {
+                best = var;
+                bestBreak = b;
+                ties = 1;
+            }
+            else if (b == bestBreak && random.nextInt(++ties) == 0) {
+                // Pick uniformly among the variables with the lowest break count
+                best = var;
+            }
+        }
+        if (bestBreak > 0 && random.nextDouble() < noise) {
+            return Lits.var(literals[start + random.nextInt(end - start)]);
+        }
+        return best;
+    }
+
+    private int pickProbSat(int clause) {
+        int start = formula.clauseStart(clause);
+        int size = formula.clauseSize(clause);
+        if (size > weights.length) {
+            weights = new double[size];
+        }
+        double total = 0;
+        for (int j = 0; j < size; j++) {
+            weights[j] = Math.pow(EPS + breakCount[Lits.var(literals[start + j])], -cb);
+            total += weights[j];
+        }
+        double r = random.nextDouble() * total;
+        for (int j = 0; j < size - 1; j++) {
+            r -= weights[j];
+            if (r <= 0) {
+                return Lits.var(literals[start + j]);
+            }
+        }
+        return Lits.var(literals[start + size - 1]);
+    }
+
+    // Set the unassigned variables of the clause to FALSE
+    private void assignUndefined(int clause) {
+        for (int j = formula.clauseStart(clause); j < formula.clauseEnd(clause); j++) {
+            int var = Lits.var(literals[j]);
+            if (assigns[var] == Lits.UNDEFINED) {
+                set(var, Lits.FALSE);
+            }
+        }
+    }
+
+    /*
+     * Give var a new value, updating the counters of the clauses it occurs
+     * in: those with the literal that stops being true, then those with the
+     * one that becomes true. A flip between TRUE and FALSE does both.
+     */
+    private void set(int var, byte value) {
+        byte old = assigns[var];
+        if (old != Lits.UNDEFINED) {
+            becomeFalse(Lits.make(var, old == Lits.FALSE));
+        }
+        assigns[var] = value;
+        if (value != Lits.UNDEFINED) {
+            becomeTrue(Lits.make(var, value == Lits.FALSE));
+        }
+    }
+
+    private void becomeTrue(int lit) {
+        int var = Lits.var(lit);
+        for (int k = occurStart[lit]; k < occurStart[lit + 1]; k++) {
+            int c = occurs[k];
+            int count = numTrue[c]++;
+            if (count == 0) {
+                removeUnsat(c);
+                breakCount[var] += 1;
+            }
+            else if (count == 1) {
+                // The literal that was the only true one is no longer critical
+                breakCount[Lits.var(trueXor[c])] -= 1;
+            }
+            trueXor[c] ^= lit;
+        }
+    }
+
+    private void becomeFalse(int lit) {
+        int var = Lits.var(lit);
+        for (int k = occurStart[lit]; k < occurStart[lit + 1]; k++) {
+            int c = occurs[k];
+            int count = --numTrue[c];
+            trueXor[c] ^= lit;
+            if (count == 0) {
+                addUnsat(c);
+                breakCount[var] -= 1;
+            }
+            else if (count == 1) {
+                // The remaining true literal has become critical
+                breakCount[Lits.var(trueXor[c])] += 1;
+            }
+        }
+    }
+
+    private void addUnsat(int c) {
+        unsatPos[c] = numUnsat;
+        unsat[numUnsat++] = c;
+    }
+
+    // Swap the last unsatisfied clause into c's place
+    private void removeUnsat(int c) {
+        int pos = unsatPos[c];
+        int last = unsat[--numUnsat];
+        unsat[pos] = last;
+        unsatPos[last] = pos;
+        unsatPos[c] = -1;
+    }
+}
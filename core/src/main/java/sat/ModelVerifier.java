@@ -0,0 +1,168 @@
+package sat;
+
+import sat.core.Lits;
+import sat.env.Bool;
+import sat.env.Variable;
+import sat.formula.Clause;
+import sat.formula.Formula;
+import sat.formula.Literal;
+import sat.formula.PosLiteral;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks a model returned by any of the solvers against the clauses of the
+ * formula it was asked to satisfy, independently of how it was found.
+ *
+ * The model is turned into an assignment indexed by variable id once, and
+ * the clauses are then checked in one pass with Clause.eval. The assignment
+ * only reaches the highest id among the variables of the formula, however
+ * many other names the process has interned, and looking up the names of a
+ * model never interns new ones. A clause is violated unless the model makes
+ * it true, so variables the model leaves out count against it. Formulas of
+ * at least PARALLEL_THRESHOLD clauses are split into chunks checked on a
+ * ForkJoinPool; as soon as a violated clause is found, chunks after it are
+ * skipped, and the violation reported is always the first one in clause
+ * order.
+ */
+public class ModelVerifier {
+    private static final int CHUNK_SIZE = 1 << 12;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final Formula formula;
+    private final ForkJoinPool pool;
+    private int numIds = -1; // one more than the highest variable id in formula, once computed
+
+    public ModelVerifier(Formula formula) {
+        this(formula, ForkJoinPool.commonPool());
+    }
+
+    public ModelVerifier(Formula formula, ForkJoinPool pool) {
+        this.formula = formula;
+        this.pool = pool;
+    }
+
+    /**
+     * @return the first clause not satisfied by model, or null if it
+     *         satisfies every clause
+     */
+    public Clause firstViolated(Map<Variable, Bool> model) {
+        return clauseAt(check(toAssignment(model)));
+    }
+
+    /**
+     * Check a model keyed by variable name, as returned by
+     * SATSolver.solveRandom.
+     * @return the first clause not satisfied by model, or null if it
+     *         satisfies every clause
+     */
+    public Clause firstViolatedByName(Map<String, Bool> model) {
+        byte[] assignment = new byte[numIds()];
+        for (Map.Entry<String, Bool> e : model.entrySet()) {
+            set(assignment, PosLiteral.forName(e.getKey()), e.getValue());
+        }
+        return clauseAt(check(assignment));
+    }
+
+    /**
+     * Check an assignment indexed by variable id (see Clause.eval).
+     * @return position of the first clause in Formula.getClause order that
+     *         assignment does not make true, or -1 if there is none
+     */
+    public int check(byte[] assignment) {
+        int numClauses = formula.getSize();
+        if (numClauses < PARALLEL_THRESHOLD) {
+            return formula.firstUnsatisfied(assignment);
+        }
+        AtomicInteger first = new AtomicInteger(Integer.MAX_VALUE);
+        pool.invoke(new Chunk(assignment, 0, numClauses, first));
+        return first.get() == Integer.MAX_VALUE ? -1 : first.get();
+    }
+
+    /**
+     * @return model as an assignment indexed by variable id, covering the
+     *         variables of the formula
+     */
+    public byte[] toAssignment(Map<Variable, Bool> model) {
+        byte[] assignment = new byte[numIds()];
+        for (Map.Entry<Variable, Bool> e : model.entrySet()) {
+            int id = e.getKey().getId();
+            if (id >= 0) {
+                if (id < assignment.length) {
+                    assignment[id] = Lits.fromBool(e.getValue());
+                }
+            }
+            else {
+                // Not interned: find the interned variable of the same name
+                set(assignment, PosLiteral.forName(e.getKey().getName()), e.getValue());
+            }
+        }
+        return assignment;
+    }
+
+    // Record the value of literal's variable, unless there is no such literal or the formula does not mention it
+    private static void set(byte[] assignment, PosLiteral literal, Bool value) {
+        if (literal == null) {
+            return;
+        }
+        int id = literal.getVariable().getId();
+        if (id < assignment.length) {
+            assignment[id] = Lits.fromBool(value);
+        }
+    }
+
+    // Variables the formula does not mention have higher ids, or none, and Clause.eval takes them as undefined
+    private int numIds() {
+        if (numIds == -1) {
+            int highest = -1;
+            for (int i = 0; i < formula.getSize(); i++) {
+                for (Literal l : formula.getClause(i)) {
+                    highest = Math.max(highest, l.getVariable().getId());
+                }
+            }
+            numIds = highest + 1;
+        }
+        return numIds;
+    }
+
+    private Clause clauseAt(int position) {
+        return position == -1 ? null : formula.getClause(position);
+    }
+
+    // Checks clauses lo .. hi-1, recording the first violated one in first
+    private class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] assignment;
+        private final int lo;
+        private final int hi;
+        private final AtomicInteger first;
+
+        Chunk(byte[] assignment, int lo, int hi, AtomicInteger first) {
+            this.assignment = assignment;
+            this.lo = lo;
+            this.hi = hi;
+            this.first = first;
+        }
+
+        @Override
+        protected void compute() {
+            if (first.get() < lo) {
+                // An earlier clause is already violated
+                return;
+            }
+            if (hi - lo <= CHUNK_SIZE) {
+                int bad = formula.firstUnsatisfied(assignment, lo, hi);
+                if (bad != -1) {
+                    first.accumulateAndGet(bad, Math::min);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Chunk(assignment, lo, mid, first), new Chunk(assignment, mid, hi, first));
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package sat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel strongly connected components for the 2SAT implication graph,
+ * using the forward-backward algorithm on a ForkJoinPool.
+ *
+ * For a set of vertices and a pivot in it, the vertices reachable from the
+ * pivot (forward) and those reaching it (backward) intersect in exactly the
+ * pivot's SCC. Every other SCC lies entirely inside the forward set, the
+ * backward set or the remainder, so the three are solved as independent
+ * subtasks. Sets are told apart by a color per vertex, so a task only ever
+ * follows edges into vertices of its own color. Before each split, vertices
+ * with no edge in or no edge out within their set are trimmed off as SCCs of
+ * their own, which disposes of most of a sparse implication graph cheaply.
+ * Sets below LEAF_SIZE are finished with an iterative Tarjan restricted to
+ * their color.
+ *
+ * Forward-backward finds the SCCs in no particular order, so they are then
+ * put in topological order of the condensed graph (Kahn's algorithm), which
+ * is what Graph.solve needs to extract an assignment.
+ */
+public class ParallelSCC {
+    private static final int LEAF_SIZE = 1 << 12;
+
+    private final int numVertices;
+    private final boolean[] isVertex;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] tOffsets; // the transposed graph, for backward search
+    private final int[] tTargets;
+
+    private final int[] color;
+    private final int[] component;
+    private final int[] order; // vertices grouped so that every task owns a contiguous range
+    private final int[] index; // Tarjan discovery order for leaf tasks
+    private final int[] lowlink;
+    private final int[] inDegree; // edges within the vertex's set, for trimming
+    private final int[] outDegree;
+    private final AtomicInteger nextColor = new AtomicInteger(1);
+    private final AtomicInteger nextComponent = new AtomicInteger(0);
+    private int numComponents = 0;
+
+    ParallelSCC(int numVertices, boolean[] isVertex, int[] offsets, int[] targets,
+            int[] tOffsets, int[] tTargets) {
+        this.numVertices = numVertices;
+        this.isVertex = isVertex;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.tOffsets = tOffsets;
+        this.tTargets = tTargets;
+        this.color = new int[numVertices];
+        this.component = new int[numVertices];
+        this.order = new int[numVertices];
+        this.index = new int[numVertices];
+        this.lowlink = new int[numVertices];
+        this.inDegree = new int[numVertices];
+        this.outDegree = new int[numVertices];
+    }
+
+    /**
+     * Find the SCCs on the given pool.
+     * @return the SCC of each vertex, numbered in topological order; -1 for
+     * literals that are not vertices
+     */
+    int[] run(ForkJoinPool pool) {
+        int count = 0;
+        for (int v = 0; v < numVertices; v++) {
+            if (isVertex[v]) {
+                order[count++] = v;
+            }
+            else {
+                color[v] = -1;
+            }
+        }
+        pool.invoke(new Task(0, count, 0));
+        numComponents = nextComponent.get();
+        topologicalOrder();
+        return component;
+    }
+
+    /**
+     * @return number of SCCs found by the last run
+     */
+    int getNumComponents() {
+        return numComponents;
+    }
+
+    private class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final int myColor;
+
+        // Solves the vertices order[lo .. hi-1], which all have color myColor
+        Task(int lo, int hi, int myColor) {
+            this.lo = lo;
+            this.hi = hi;
+            this.myColor = myColor;
+        }
+
+        /*
+         * Each round trims the set, then splits it around a pivot. The largest
+         * part is handled by the next round of this task and the other two are
+         * forked, so nesting stays logarithmic in the size of the set.
+         */
+        @Override
+        protected void compute() {
+            ArrayList<Task> forked = new ArrayList<Task>();
+            int lo = this.lo;
+            int hi = this.hi;
+            int c = myColor;
+            while (true) {
+                hi = trim(lo, hi, c);
+                if (hi - lo <= LEAF_SIZE) {
+                    tarjan(lo, hi, c);
+                    break;
+                }
+                int fwColor = nextColor.getAndIncrement();
+                int bwColor = nextColor.getAndIncrement();
+                int[] ends = split(lo, hi, c, fwColor, bwColor);
+                int fwEnd = ends[0];
+                int bwEnd = ends[1];
+                int restEnd = ends[2];
+
+                // Continue with the largest part, fork the others
+                Task fw = new Task(lo, fwEnd, fwColor);
+                Task bw = new Task(fwEnd, bwEnd, bwColor);
+                Task rest = new Task(bwEnd, restEnd, c);
+                Task largest = fw;
+                if (bw.hi - bw.lo > largest.hi - largest.lo) largest = bw;
+                if (rest.hi - rest.lo > largest.hi - largest.lo) largest = rest;
+                for (Task t : new Task[] {fw, bw, rest}) {
+                    if (t != largest && t.hi > t.lo) {
+                        t.fork();
+                        forked.add(t);
+                    }
+                }
+                lo = largest.lo;
+                hi = largest.hi;
+                c = largest.myColor;
+            }
+            for (Task t : forked) {
+                t.join();
+            }
+        }
+    }
+
+    /*
+     * Remove the vertices of order[lo..hi-1] with no edge in from, or no edge
+     * out to, a vertex of color c: each is an SCC on its own. Removing one can
+     * expose more, so this runs to a fixpoint with a worklist.
+     * Returns the end of the surviving vertices, which are moved to the front.
+     */
+    private int trim(int lo, int hi, int c) {
+        int[] queue = new int[hi - lo];
+        int tail = 0;
+        for (int i = lo; i < hi; i++) {
+            int v = order[i];
+            int out = 0;
+            for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                if (color[targets[k]] == c) out++;
+            }
+            int in = 0;
+            for (int k = tOffsets[v]; k < tOffsets[v + 1]; k++) {
+                if (color[tTargets[k]] == c) in++;
+            }
+            outDegree[v] = out;
+            inDegree[v] = in;
+        }
+        for (int i = lo; i < hi; i++) {
+            int v = order[i];
+            if (outDegree[v] == 0 || inDegree[v] == 0) {
+                component[v] = nextComponent.getAndIncrement();
+                color[v] = -1;
+                queue[tail++] = v;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int v = queue[head];
+            for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                int w = targets[k];
+                if (color[w] == c && --inDegree[w] == 0) {
+                    component[w] = nextComponent.getAndIncrement();
+                    color[w] = -1;
+                    queue[tail++] = w;
+                }
+            }
+            for (int k = tOffsets[v]; k < tOffsets[v + 1]; k++) {
+                int w = tTargets[k];
+                if (color[w] == c && --outDegree[w] == 0) {
+                    component[w] = nextComponent.getAndIncrement();
+                    color[w] = -1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        int end = lo;
+        for (int i = lo; i < hi; i++) {
+            if (color[order[i]] == c) {
+                swap(i, end++);
+            }
+        }
+        return end;
+    }
+
+    /*
+     * Forward-backward step on order[lo..hi-1], all of color c. The pivot's SCC
+     * is numbered and removed; the rest is regrouped as
+     * forward (fwColor) | backward (bwColor) | remainder (c).
+     * Returns the ends of the three groups.
+     */
+    private int[] split(int lo, int hi, int c, int fwColor, int bwColor) {
+        int pivot = order[lo + (hi - lo) / 2];
+        int[] queue = new int[hi - lo];
+
+        // Forward: recolor everything reachable from the pivot
+        int head = 0;
+        int tail = 0;
+        color[pivot] = fwColor;
+        queue[tail++] = pivot;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int w = targets[i];
+                if (color[w] == c) {
+                    color[w] = fwColor;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        // Backward: forward vertices reached again are the pivot's SCC
+        int id = nextComponent.getAndIncrement();
+        head = 0;
+        tail = 0;
+        color[pivot] = -1;
+        component[pivot] = id;
+        queue[tail++] = pivot;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int i = tOffsets[v]; i < tOffsets[v + 1]; i++) {
+                int w = tTargets[i];
+                if (color[w] == fwColor) {
+                    color[w] = -1;
+                    component[w] = id;
+                    queue[tail++] = w;
+                }
+                else if (color[w] == c) {
+                    color[w] = bwColor;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        int fwEnd = lo;
+        for (int i = lo; i < hi; i++) {
+            if (color[order[i]] == fwColor) {
+                swap(i, fwEnd++);
+            }
+        }
+        int bwEnd = fwEnd;
+        for (int i = fwEnd; i < hi; i++) {
+            if (color[order[i]] == bwColor) {
+                swap(i, bwEnd++);
+            }
+        }
+        int restEnd = bwEnd;
+        for (int i = bwEnd; i < hi; i++) {
+            if (color[order[i]] == c) {
+                swap(i, restEnd++);
+            }
+        }
+        return new int[] {fwEnd, bwEnd, restEnd};
+    }
+
+    private void swap(int i, int j) {
+        int tmp = order[i];
+        order[i] = order[j];
+        order[j] = tmp;
+    }
+
+    // Iterative Tarjan over the vertices order[lo..hi-1], following only edges within color c
+    private void tarjan(int lo, int hi, int c) {
+        int n = hi - lo;
+        int[] stack = new int[n];
+        int stackSize = 0;
+        int[] callStack = new int[n];
+        int[] edgePos = new int[n]; // by position on the call stack
+        int callSize = 0;
+        int counter = 0;
+        for (int i = lo; i < hi; i++) {
+            index[order[i]] = 0;
+        }
+
+        for (int i = lo; i < hi; i++) {
+            int s = order[i];
+            if (index[s] != 0) {
+                continue;
+            }
+            index[s] = lowlink[s] = ++counter;
+            stack[stackSize++] = s;
+            edgePos[callSize] = offsets[s];
+            callStack[callSize++] = s;
+
+            while (callSize > 0) {
+                int v = callStack[callSize - 1];
+                if (edgePos[callSize - 1] < offsets[v + 1]) {
+                    int w = targets[edgePos[callSize - 1]++];
+                    if (color[w] != c) {
+                        continue;
+                    }
+                    if (index[w] == 0) {
+                        index[w] = lowlink[w] = ++counter;
+                        stack[stackSize++] = w;
+                        edgePos[callSize] = offsets[w];
+                        callStack[callSize++] = w;
+                    }
+                    else if (index[w] < lowlink[v]) {
+                        // w still has color c, so it is on the stack
+                        lowlink[v] = index[w];
+                    }
+                }
+                else {
+                    callSize -= 1;
+                    if (callSize > 0) {
+                        int u = callStack[callSize - 1];
+                        if (lowlink[v] < lowlink[u]) {
+                            lowlink[u] = lowlink[v];
+                        }
+                    }
+                    if (lowlink[v] == index[v]) {
+                        int id = nextComponent.getAndIncrement();
+                        int w;
+                        do {
+                            w = stack[--stackSize];
+                            component[w] = id;
+                            color[w] = -1; // done: no longer on the stack
+                        } while (w != v);
+                    }
+                }
+            }
+        }
+    }
+
+    // Renumber the components in topological order of the condensed graph
+    private void topologicalOrder() {
+        int[] inDegree = new int[numComponents];
+        int[] memberStart = new int[numComponents + 1];
+        for (int v = 0; v < numVertices; v++) {
+            if (!isVertex[v]) {
+                continue;
+            }
+            memberStart[component[v] + 1] += 1;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (component[targets[i]] != component[v]) {
+                    inDegree[component[targets[i]]] += 1;
+                }
+            }
+        }
+        for (int c = 0; c < numComponents; c++) {
+            memberStart[c + 1] += memberStart[c];
+        }
+        int[] members = new int[memberStart[numComponents]];
+        int[] fill = Arrays.copyOf(memberStart, numComponents);
+        for (int v = 0; v < numVertices; v++) {
+            if (isVertex[v]) {
+                members[fill[component[v]]++] = v;
+            }
+        }
+
+        int[] queue = new int[numComponents];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < numComponents; c++) {
+            if (inDegree[c] == 0) {
+                queue[tail++] = c;
+            }
+        }
+        int[] position = new int[numComponents];
+        while (head < tail) {
+            int c = queue[head];
+            position[c] = head++;
+            for (int m = memberStart[c]; m < memberStart[c + 1]; m++) {
+                int v = members[m];
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int d = component[targets[i]];
+                    if (d != c && --inDegree[d] == 0) {
+                        queue[tail++] = d;
+                    }
+                }
+            }
+        }
+
+        for (int v = 0; v < numVertices; v++) {
+            component[v] = isVertex[v] ? position[component[v]] : -1;
+        }
+    }
+}
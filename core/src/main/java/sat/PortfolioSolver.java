@@ -0,0 +1,223 @@
+package sat;
+
+import sat.core.IntFormula;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs several engines on the same formula at once and takes the answer of
+ * whichever finishes first.
+ *
+ * Each member of the portfolio is an engine (CDCL, DPLL, or WalkSAT or
+ * ProbSAT local search, see LocalSearchSolver) with a seed. The members share
+ * the formula's literal arena read-only and each runs on a thread of its own.
+ * The first member to reach a conclusive answer, a model or a proof that
+ * there is none, wins: a shared stop flag is set, which the other members
+ * check as they go and give up on (see CdclSolver.setStop), and their tasks
+ * are cancelled. Local search members can only find models; they run until
+ * stopped or until their flip budget runs out. The DPLL member recurses once
+ * per decision, and if it overflows the stack it gives up like a local search
+ * member would, leaving the answer to the others: the StackOverflowError is
+ * swallowed, not reported.
+ *
+ * When no member reaches a conclusive answer, or the waiting thread is
+ * interrupted, solve returns null with getWinner() -1, which says nothing
+ * about satisfiability; SATSolver turns that into a CancellationException.
+ *
+ * A PortfolioSolver can be used for many formulas, one at a time, and keeps
+ * count of how often each member won.
+ */
+public class PortfolioSolver {
+    /**
+     * The engines a member of the portfolio can run.
+     */
+    public enum Kind {
+        CDCL, DPLL, WALKSAT, PROBSAT
+    }
+
+    private final List<Kind> kinds = new ArrayList<Kind>();
+    private final List<Long> seeds = new ArrayList<Long>();
+    private long[] wins = new long[0];
+    private long maxFlips = Long.MAX_VALUE;
+    private int winner = -1;
+
+    /**
+     * @return a portfolio of two CDCL members, one with plain EVSIDS and one
+     *         with seeded activities and phases, DPLL, WalkSAT and ProbSAT
+     */
+    public static PortfolioSolver withDefaultEngines() {
+        return new PortfolioSolver()
+                .add(Kind.CDCL, 0)
+                .add(Kind.CDCL, 1)
+                .add(Kind.DPLL, 0)
+                .add(Kind.WALKSAT, 2)
+                .add(Kind.PROBSAT, 3);
+    }
+
+    /**
+     * Add a member running the given engine. A CDCL member with seed 0 uses
+     * plain EVSIDS; any other seed is passed to CdclSolver.setSeed. DPLL
+     * ignores the seed.
+     * @return this
+     */
+    public PortfolioSolver add(Kind kind, long seed) {
+        kinds.add(kind);
+        seeds.add(seed);
+        wins = Arrays.copyOf(wins, kinds.size());
+        return this;
+    }
+
+    /**
+     * Limit the flips of each local search member. Unlimited by default.
+     * @return this
+     */
+    public PortfolioSolver setMaxFlips(long maxFlips) {
+        this.maxFlips = maxFlips;
+        return this;
+    }
+
+    /**
+     * Solve formula on a thread pool of one thread per member.
+     *
+     * @return a model of formula, or null if it is unsatisfiable or no member
+     *         reached an answer (getWinner() is then -1)
+     */
+    public byte[] solve(IntFormula formula) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, kinds.size()));
+        try {
+            return solve(formula, pool);
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Solve formula with the members running on pool, which should have a
+     * thread for each of them.
+     *
+     * @return a model of formula, or null if it is unsatisfiable or no member
+     *         reached an answer (getWinner() is then -1)
+     */
+    public byte[] solve(IntFormula formula, ExecutorService pool) {
+        AtomicBoolean stop = new AtomicBoolean(false);
+        ExecutorCompletionService<Outcome> done = new ExecutorCompletionService<Outcome>(pool);
+        List<Future<Outcome>> tasks = new ArrayList<Future<Outcome>>();
+        for (int i = 0; i < kinds.size(); i++) {
+            final int member = i;
+            tasks.add(done.submit(() -> run(member, formula, stop)));
+        }
+
+        winner = -1;
+        byte[] model = null;
+        try {
+            for (int i = 0; i < tasks.size() && winner == -1; i++) {
+                Outcome outcome = done.take().get();
+                if (outcome.conclusive) {
+                    winner = outcome.member;
+                    model = outcome.model;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("A portfolio engine failed", e.getCause());
+        }
+        finally {
+            stop.set(true);
+            for (Future<Outcome> task : tasks) {
+                task.cancel(true);
+            }
+        }
+        if (winner != -1) {
+            wins[winner] += 1;
+        }
+        return model;
+    }
+
+    // Run one member until it answers, gives up or is stopped
+    private Outcome run(int member, IntFormula formula, AtomicBoolean stop) {
+        long seed = seeds.get(member);
+        try {
+            switch (kinds.get(member)) {
+                case CDCL: {
+                    CdclSolver solver = new CdclSolver(formula).setStop(stop);
+                    if (seed != 0) {
+                        solver.setSeed(seed);
+                    }
+                    return new Outcome(member, solver.solve(), true);
+                }
+                case DPLL:
+                    try {
+                        return new Outcome(member, SATSolver.solveDpll(formula, null, stop), true);
+                    }
+                    catch (StackOverflowError e) {
+                        // The recursion is as deep as the search; leave deep problems to the others
+                        return new Outcome(member, null, false);
+                    }
+                default: {
+                    LocalSearchSolver solver = new LocalSearchSolver(formula, seed).setStop(stop)
+                            .setStrategy(kinds.get(member) == Kind.WALKSAT
+                                    ? LocalSearchSolver.Strategy.WALKSAT : LocalSearchSolver.Strategy.PROBSAT);
+                    byte[] model = solver.solve(maxFlips);
+                    return new Outcome(member, model, model != null);
+                }
+            }
+        }
+        catch (CancellationException e) {
+            return new Outcome(member, null, false);
+        }
+    }
+
+    /**
+     * @return number of members
+     */
+    public int size() {
+        return kinds.size();
+    }
+
+    /**
+     * @return the engine of the given member
+     */
+    public Kind getKind(int member) {
+        return kinds.get(member);
+    }
+
+    /**
+     * @return the member that answered the last call of solve, or -1 if none
+     *         did
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * @return number of calls of solve the given member answered
+     */
+    public long getWins(int member) {
+        return wins[member];
+    }
+
+    private static class Outcome {
+        final int member;
+        final byte[] model;
+        final boolean conclusive;
+
+        Outcome(int member, byte[] model, boolean conclusive) {
+            this.member = member;
+            this.model = model;
+            this.conclusive = conclusive;
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package sat;
+
+import immutable.*;
+import sat.core.IntFormula;
+import sat.core.Lits;
+import sat.env.Environment;
+import sat.env.Bool;
+import sat.env.Variable;
+import sat.formula.*;
+import sat.io.DratWriter;
+import sat.preprocess.Preprocessor;
+
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A simple DPLL SAT solver. See http://en.wikipedia.org/wiki/DPLL_algorithm
+ */
+public class SATSolver {
+
+    /**
+     * Solve the problem using a simple version of DPLL with backtracking and
+     * unit propagation. The returned environment binds literals of class
+     * bool.Variable rather than the special literals used in clausification of
+     * class clausal.Literal, so that clients can more readily use it.
+     * 
+     * @return an environment for which the problem evaluates to Bool.TRUE, or
+     *         null if no such environment exists.
+     */
+    public static HashMap<Variable, Bool> solve(Formula formula) {
+        HashMap<Variable, Bool> env = new HashMap<Variable, Bool>();
+        ImList<Clause> clauses = formula.getClauses();
+        return solve(clauses, env, null, null, null);
+    }
+
+    /**
+     * Search engines for problems of degree above 2.
+     */
+    public enum Engine {
+        /** conflict-driven clause learning, see CdclSolver */
+        CDCL,
+        /** the chronological backtracking DPLL of solve(Formula) */
+        DPLL,
+        /** CDCL, DPLL and local search run side by side, see PortfolioSolver */
+        PORTFOLIO,
+        /** DPLL with the top decisions split into cubes solved in parallel, see CubeSolver */
+        CUBE
+    }
+
+    public static HashMap<Variable, Bool> solve(Formula formula, int degree) {
+        return solve(formula, degree, Engine.CDCL);
+    }
+
+    /**
+     * Solve a problem whose widest clause has degree literals. 2SAT problems
+     * are solved with SCC; anything wider is handed to the given engine.
+     * 
+     * @return an environment for which the problem evaluates to Bool.TRUE, or
+     *         null if no such environment exists.
+     * @throws CancellationException if the portfolio gave up without an
+     *         answer, because it was interrupted or every engine gave up
+     */
+    public static HashMap<Variable, Bool> solve(Formula formula, int degree, Engine engine) {
+        return solve(formula, degree, engine, null);
+    }
+
+    /**
+     * Solve a problem as solve(formula, degree, engine) does, and if it is
+     * not satisfiable, write a DRAT proof of that to proof (unless proof is
+     * null). Variables are numbered in the proof as in the DIMACS file the
+     * formula was read from (see IntFormula.toDimacs).
+     * Proofs are not supported by the portfolio, which cannot tell in
+     * advance which of its engines will answer, nor by the cube solver.
+     * 
+     * @return an environment for which the problem evaluates to Bool.TRUE, or
+     *         null if no such environment exists.
+     */
+    public static HashMap<Variable, Bool> solve(Formula formula, int degree, Engine engine, DratWriter proof) {
+        return solve(formula, degree, engine, proof, new CdclSettings());
+    }
+
+    /**
+     * Solve a problem as solve(formula, degree, engine, proof) does, tuning
+     * the CDCL engine with settings.
+     * 
+     * @return an environment for which the problem evaluates to Bool.TRUE, or
+     *         null if no such environment exists.
+     */
+    public static HashMap<Variable, Bool> solve(Formula formula, int degree, Engine engine, DratWriter proof,
+            CdclSettings settings) {
+        // 2SAT problem or lower - solve with SCC
+        if(degree <= 2) {
+            Graph graph = new Graph(formula, degree);
+            HashMap<Variable, Bool> result = graph.solve();
+            if(result == null && proof != null) {
+                graph.writeUnsatProof(proof);
+            }
+            return result;
+        }
+        else if(engine == Engine.CUBE) {
+            if(proof != null) {
+                throw new IllegalArgumentException("The cube solver cannot write proofs");
+            }
+            return new CubeSolver(formula).solve();
+        }
+        else if(engine != Engine.DPLL) {
+            IntFormula intFormula = IntFormula.fromFormula(formula);
+            byte[] model = solve(intFormula, degree, engine, proof, settings);
+            return model == null ? null : intFormula.toEnvironment(model);
+        }
+        else {
+            // Otherwise, solve with DPLL
+            HashMap<Variable, Bool> env = new HashMap<Variable, Bool>();
+            ImList<Clause> clauses = formula.getClauses();
+            HashMap<Variable, Bool> result = solve(clauses, env, proof, new ArrayList<Literal>(), null);
+            if(result == null && proof != null) {
+                proof.addEmpty();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Simplify a problem with preprocessor, solve what is left as
+     * solve(formula, degree, engine, proof) does, and extend the model found
+     * to the variables of the original problem.
+     * 
+     * @return an environment for which the problem given to preprocessor
+     *         evaluates to Bool.TRUE, or null if no such environment exists.
+     * @throws CancellationException if the portfolio gave up without an
+     *         answer
+     */
+    public static HashMap<Variable, Bool> solve(Preprocessor preprocessor, Engine engine, DratWriter proof) {
+        return solve(preprocessor, engine, proof, new CdclSettings());
+    }
+
+    /**
+     * Solve a problem as solve(preprocessor, engine, proof) does, tuning the
+     * CDCL engine with settings.
+     * 
+     * @return an environment for which the problem given to preprocessor
+     *         evaluates to Bool.TRUE, or null if no such environment exists.
+     */
+    public static HashMap<Variable, Bool> solve(Preprocessor preprocessor, Engine engine, DratWriter proof,
+            CdclSettings settings) {
+        if(proof != null) {
+            preprocessor.setProof(proof);
+        }
+        IntFormula simplified = preprocessor.run();
+        if(simplified == null) {
+            return null;
+        }
+        byte[] model = solve(simplified, simplified.getDegree(), engine, proof, settings);
+        if(model == null) {
+            return null;
+        }
+        return preprocessor.getFormula().toEnvironment(preprocessor.extend(model));
+    }
+
+    // Solve with SCC if degree is at most 2, else with the given engine
+    private static byte[] solve(IntFormula formula, int degree, Engine engine, DratWriter proof,
+            CdclSettings settings) {
+        if(degree <= 2) {
+            Graph graph = new Graph(formula);
+            HashMap<Variable, Bool> result = graph.solve();
+            if(result == null) {
+                if(proof != null) {
+                    graph.writeUnsatProof(proof);
+                }
+                return null;
+            }
+            return formula.fromEnvironment(result);
+        }
+        else if(engine == Engine.CDCL) {
+            CdclSolver solver = new CdclSolver(formula).setSettings(settings);
+            if(proof != null) {
+                solver.setProof(proof);
+            }
+            byte[] model = solver.solve();
+            settings.finished(solver);
+            return model;
+        }
+        else if(engine == Engine.PORTFOLIO) {
+            if(proof != null) {
+                throw new IllegalArgumentException("The portfolio cannot write proofs");
+            }
+            PortfolioSolver portfolio = PortfolioSolver.withDefaultEngines();
+            byte[] model = portfolio.solve(formula);
+            if(model == null && portfolio.getWinner() == -1) {
+                // Neither a model nor a refutation: null would claim the formula unsatisfiable
+                throw new CancellationException("No engine of the portfolio reached an answer");
+            }
+            return model;
+        }
+        else if(engine == Engine.CUBE) {
+            if(proof != null) {
+                throw new IllegalArgumentException("The cube solver cannot write proofs");
+            }
+            HashMap<Variable, Bool> result = new CubeSolver(formula.toFormula()).solve();
+            return result == null ? null : formula.fromEnvironment(result);
+        }
+        else {
+            // Otherwise, solve with DPLL
+            return solveDpll(formula, proof, null);
+        }
+    }
+
+    /**
+     * Solve formula with DPLL, giving up once stop (if not null) is set.
+     * 
+     * @return a model of formula, or null if it is unsatisfiable
+     * @throws CancellationException if stop was set
+     */
+    static byte[] solveDpll(IntFormula formula, DratWriter proof, AtomicBoolean stop) {
+        HashMap<Variable, Bool> env = new HashMap<Variable, Bool>();
+        ImList<Clause> clauses = formula.toFormula().getClauses();
+        HashMap<Variable, Bool> result = solve(clauses, env, proof, new ArrayList<Literal>(), stop);
+        if(result == null) {
+            if(proof != null) {
+                proof.addEmpty();
+            }
+            return null;
+        }
+        return formula.fromEnvironment(result);
+    }
+
+    /**
+     * Takes a partial assignment of variables to values, and recursively
+     * searches for a complete satisfying assignment.
+     * 
+     * @param clauses
+     *            formula in conjunctive normal form
+     * @param env
+     *            assignment of some or all variables in clauses to true or
+     *            false values.
+     * @param proof
+     *            if not null, receives the negation of the decisions leading
+     *            to each branch that fails. Each of these follows by unit
+     *            propagation from the clauses before it, so that with the
+     *            empty clause at the end they prove the clauses unsatisfiable.
+     * @param decisions
+     *            the literals chosen in branches above this call, if proof is
+     *            not null
+     * @param stop
+     *            if not null, the search gives up once it is set
+     * @return an environment for which all the clauses evaluate to Bool.TRUE,
+     *         or null if no such environment exists.
+     * @throws CancellationException if stop was set
+     */
+    static HashMap<Variable, Bool> solve(ImList<Clause> clauses, HashMap<Variable, Bool> env,
+            DratWriter proof, ArrayList<Literal> decisions, AtomicBoolean stop) {
+        if(stop != null && stop.get()) {
+            throw new CancellationException();
+        }
+        if(clauses.isEmpty()) {
+            // No clauses, trivially satisfiable
+            return env;
+        }
+        else {
+            Clause smallest = smallestClause(clauses);
+
+            // Work on smallest clause
+            // Pick arbitrary literal
+
+            Literal first = smallest.chooseLiteral();
+            ImList<Clause> newClauses = substitute(clauses, first);
+            // substitute returns null if there's an empty Clause (unsatisfiable)
+            if(newClauses == null) {
+                return null;
+            }
+
+            assign(env, first);
+
+            if(smallest.size() == 1) {
+                // Substitute for it
+                return solve(newClauses, env, proof, decisions, stop);
+            }
+            else {
+                // Substitute for it
+                if(proof != null) {
+                    decisions.add(first);
+                }
+                HashMap<Variable, Bool> firstSol = solve(newClauses, env, proof, decisions, stop);
+                if(proof != null) {
+                    if(firstSol == null) {
+                        writeNegation(proof, decisions);
+                    }
+                    decisions.remove(decisions.size() - 1);
+                }
+
+                if(firstSol == null) {
+                    newClauses = substitute(clauses, first.getNegation());
+                    // substitute returns null if there's an empty Clause (unsatisfiable)
+                    if(newClauses == null) {
+                        return null;
+                    }
+
+                    assign(env, first.getNegation());
+
+                    return solve(newClauses, env, proof, decisions, stop);
+                }
+                else {
+                    return firstSol;
+                }
+            }
+        }
+    }
+
+    // Requires: clauses is not empty
+    static Clause smallestClause(ImList<Clause> clauses) {
+        Clause smallest = clauses.first(); // Initialize as first Clause
+        for(Clause c : clauses.rest()) {
+            if(c.size() < smallest.size()) {
+                smallest = c;
+            }
+        }
+        return smallest;
+    }
+
+    // Bind the variable of l in env so that l is true
+    static void assign(HashMap<Variable, Bool> env, Literal l) {
+        if(l instanceof NegLiteral) {
+            // To set neg literal to true -> set variable to false
+            env.put(l.getVariable(), Bool.FALSE);
+        }
+        else {
+            // To set pos literal to true -> set variable to true
+            env.put(l.getVariable(), Bool.TRUE);
+        }
+    }
+
+    // Add the clause that rules out making all the given literals true
+    private static void writeNegation(DratWriter proof, ArrayList<Literal> literals) {
+        int[] clause = new int[literals.size()];
+        for (int i = 0; i < clause.length; i++) {
+            Literal l = literals.get(i);
+            int number = IntFormula.dimacsNumber(l.getVariable());
+            clause[i] = l instanceof PosLiteral ? -number : number;
+        }
+        proof.add(clause, clause.length);
+    }
+
+    /**
+     * given a clause list and literal, produce a new list resulting from
+     * setting that literal to true
+     * 
+     * @param clauses
+     *            , a list of clauses
+     * @param l
+     *            , a literal to set to true
+     * @return a new list of clauses resulting from setting l to true
+     */
+    static ImList<Clause> substitute(ImList<Clause> clauses,
+            Literal l) {
+        ImList<Clause> newClauses = clauses;
+
+        for (Clause c : clauses) {
+            // c is single variable clause
+            if(c.contains(l) || c.contains(l.getNegation())) {
+                Clause reducedC = c.reduce(l);
+                if(reducedC != null) {
+                    if(reducedC.isEmpty()) {
+                        return null;
+                    }
+
+                    newClauses = newClauses.add(reducedC);
+                }
+                newClauses = newClauses.remove(c);
+            }
+        }
+        return newClauses;
+    }
+
+    /**
+    * Solve the problem by taking a random walk in 2D. Not guarenteed to produce a correct answer,
+    * but usually does with high probability. Performs 100n^2 tries before giving up.
+    * Problems of higher degree are handed to WalkSAT (see LocalSearchSolver) with the same budget of flips.
+    **/
+
+    public static HashMap<String, Bool> solveRandom(Formula formula, int numVariables, int degree) {
+        long maxTries = 100L * numVariables * numVariables;
+        // Find all variables
+        if(degree <= 2) {
+            HashMap<String, Bool> env = new HashMap<String, Bool>();
+            return SATSolver.randomWalkify(formula, env, maxTries);
+        }
+        else {
+            IntFormula intFormula = IntFormula.fromFormula(formula);
+            byte[] model = new LocalSearchSolver(intFormula, System.nanoTime()).solve(maxTries);
+            if(model == null) {
+                return null;
+            }
+            HashMap<String, Bool> env = new HashMap<String, Bool>();
+            for(Map.Entry<Variable, Bool> e : intFormula.toEnvironment(model).entrySet()) {
+                env.put(e.getKey().getName(), e.getValue());
+            }
+            return env;
+        }
+    }
+
+    /**
+    * Random walk for 2-SAT: repeatedly pick an unsatisfied clause at random and flip one of its variables,
+    * also chosen at random. Variables not bound in env are unassigned, which makes none of their literals
+    * true, and are set to FALSE when a clause containing them is picked.
+    * The unsatisfied clauses and the true literals of each clause are kept up to date on every flip
+    * (see LocalSearchSolver), so a flip only touches the clauses its variable occurs in.
+    *
+    * @return env, extended with a satisfying assignment of the variables that were needed,
+    *         or null if none was found within triesLeft flips
+    **/
+    public static HashMap<String, Bool> randomWalkify(Formula formula, HashMap<String, Bool> env, long triesLeft) {
+        IntFormula intFormula = IntFormula.fromFormula(formula);
+        byte[] initial = new byte[intFormula.getNumVariables()];
+        for(Map.Entry<String, Bool> e : env.entrySet()) {
+            int var = intFormula.varOf(PosLiteral.make(e.getKey()).getVariable());
+            if(var != -1) {
+                initial[var] = e.getValue() == Bool.TRUE ? Lits.TRUE : Lits.FALSE;
+            }
+        }
+
+        byte[] model = new LocalSearchSolver(intFormula, System.nanoTime())
+                .setStrategy(LocalSearchSolver.Strategy.RANDOM_WALK)
+                .solve(triesLeft, initial);
+        if(model == null) {
+            return null;
+        }
+        for(Map.Entry<Variable, Bool> e : intFormula.toEnvironment(model).entrySet()) {
+            env.put(e.getKey().getName(), e.getValue());
+        }
+        return env;
+    }
+
+}
@@ -0,0 +1,381 @@
+package sat.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import sat.env.Bool;
+import sat.env.Variable;
+import sat.formula.Clause;
+import sat.formula.Formula;
+import sat.formula.Literal;
+import sat.formula.NegLiteral;
+import sat.formula.PosLiteral;
+
+/**
+ * A formula in conjunctive normal form stored as a clause arena: the literals
+ * of all clauses back to back in one int array, and the offset at which each
+ * clause starts in another. Literals use the encoding of Lits.
+ *
+ * IntFormula is immutable. It is the representation the int based engines
+ * run on; fromFormula and toFormula convert from and to the Formula/Clause
+ * API, and toEnvironment turns a model back into the map of Variable to Bool
+ * the solvers return.
+ *
+ * Variable numbering depends on where the formula came from. A formula
+ * converted from a Formula numbers its own variables densely from 0, in
+ * order of first occurrence, and keeps the map between numbers and Variables,
+ * so its size depends only on the formula and not on how many literals were
+ * ever interned. Formulas started with newBuilder share that numbering, so
+ * models of the two line up. A formula read from DIMACS numbers variable n
+ * as n - 1.
+ */
+public class IntFormula {
+    /*
+     * Rep invariant:
+     *   starts.length == numClauses + 1, starts[0] == 0, starts non decreasing
+     *   starts[numClauses] <= literals.length
+     *   every literal l in a clause has 0 <= Lits.var(l) < numVariables
+     *   no clause contains a literal twice, or a literal and its negation
+     *   variables == null, or variables.length == numVariables and
+     *     numbers.get(variables[v]) == v for every v
+     *
+     * Abstraction function:
+     *   clause i is (literals[starts[i]] or ... or literals[starts[i+1]-1]),
+     *   and the formula is the conjunction of clauses 0 .. numClauses-1
+     */
+    private final int numVariables;
+    private final int numClauses;
+    private final int[] literals;
+    private final int[] starts;
+    private final int degree;
+    // The variable numbered v is variables[v], and numbers maps it back to v;
+    // both null for DIMACS numbering. Shared by formulas numbered the same way
+    private final Variable[] variables;
+    private final HashMap<Variable, Integer> numbers;
+
+    private IntFormula(int numVariables, int numClauses, int[] literals, int[] starts,
+            int degree, Variable[] variables, HashMap<Variable, Integer> numbers) {
+        this.numVariables = numVariables;
+        this.numClauses = numClauses;
+        this.literals = literals;
+        this.starts = starts;
+        this.degree = degree;
+        this.variables = variables;
+        this.numbers = numbers;
+    }
+
+    /**
+     * Convert a formula to the arena form, numbering its variables densely
+     * in order of first occurrence. Clause order is kept.
+     */
+    public static IntFormula fromFormula(Formula formula) {
+        ArrayList<Variable> variables = new ArrayList<Variable>();
+        HashMap<Variable, Integer> numbers = new HashMap<Variable, Integer>();
+        for (Clause c : formula.getClauses()) {
+            for (Literal l : c) {
+                Variable v = l.getVariable();
+                if (!numbers.containsKey(v)) {
+                    numbers.put(v, variables.size());
+                    variables.add(v);
+                }
+            }
+        }
+
+        Builder builder = new Builder(variables.size(), variables.toArray(new Variable[0]), numbers);
+        int[] clause = new int[8];
+        for (Clause c : formula.getClauses()) {
+            if (c.size() > clause.length) {
+                clause = new int[c.size()];
+            }
+            int size = 0;
+            for (Literal l : c) {
+                clause[size++] = Lits.make(numbers.get(l.getVariable()), l instanceof NegLiteral);
+            }
+            builder.addClause(clause, size);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Start a formula over the same variables as this, numbered the same way,
+     * so that models of the two line up.
+     */
+    public Builder newBuilder() {
+        return new Builder(numVariables, variables, numbers);
+    }
+
+    /**
+     * Convert back to a Formula. The resulting formula lists the clauses in
+     * the same order as this.
+     */
+    public Formula toFormula() {
+        Formula result = new Formula();
+        for (int i = numClauses - 1; i >= 0; i--) {
+            Clause c = new Clause();
+            for (int j = starts[i]; j < starts[i + 1]; j++) {
+                c = c.add(toLiteral(literals[j]));
+            }
+            result = result.addClause(c);
+        }
+        return result;
+    }
+
+    /**
+     * @return the interned literal corresponding to lit
+     */
+    public Literal toLiteral(int lit) {
+        PosLiteral pos = PosLiteral.make(getVariable(Lits.var(lit)));
+        return Lits.isNegative(lit) ? pos.getNegation() : pos;
+    }
+
+    /**
+     * @return the variable numbered var in this formula
+     */
+    public Variable getVariable(int var) {
+        if (variables == null) {
+            return PosLiteral.make(String.valueOf(var + 1)).getVariable();
+        }
+        return variables[var];
+    }
+
+    /**
+     * The literal lit in DIMACS form, numbered as in the file the formula came
+     * from, so that it can be written to proofs about that file. Variables
+     * converted from a Formula are numbered by their name when it is a
+     * number, as it is for formulas read by DimacsReader, and by their
+     * interned id + 1 otherwise.
+     * @return the DIMACS literal corresponding to lit
+     */
+    public int toDimacs(int lit) {
+        if (variables == null) {
+            return Lits.toDimacs(lit);
+        }
+        int number = dimacsNumber(getVariable(Lits.var(lit)));
+        return Lits.isNegative(lit) ? -number : number;
+    }
+
+    /**
+     * @return the name of v if it is a positive number, else its id + 1
+     */
+    public static int dimacsNumber(Variable v) {
+        try {
+            int number = Integer.parseInt(v.getName());
+            if (number > 0) {
+                return number;
+            }
+        }
+        catch (NumberFormatException e) {
+            // Not a DIMACS variable
+        }
+        return v.getId() + 1;
+    }
+
+    /**
+     * @return the number of v in this formula, or -1 if v cannot occur in it
+     */
+    public int varOf(Variable v) {
+        if (variables != null) {
+            Integer var = numbers.get(v);
+            return var == null ? -1 : var;
+        }
+        int var;
+        try {
+            var = Integer.parseInt(v.getName()) - 1;
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+        return var >= 0 && var < numVariables ? var : -1;
+    }
+
+    /**
+     * Convert a model to the map returned by the solvers. Only variables that
+     * occur in some clause and are assigned in model are bound.
+     * Requires: model.length >= getNumVariables()
+     */
+    public HashMap<Variable, Bool> toEnvironment(byte[] model) {
+        boolean[] occurs = new boolean[numVariables];
+        for (int j = 0; j < starts[numClauses]; j++) {
+            occurs[Lits.var(literals[j])] = true;
+        }
+        HashMap<Variable, Bool> env = new HashMap<Variable, Bool>();
+        for (int v = 0; v < numVariables; v++) {
+            if (occurs[v] && model[v] != Lits.UNDEFINED) {
+                env.put(getVariable(v), Lits.toBool(model[v]));
+            }
+        }
+        return env;
+    }
+
+    /**
+     * Convert a map from Variable to Bool into a model over the variables of
+     * this formula. Variables that do not occur in this are ignored.
+     */
+    public byte[] fromEnvironment(Map<Variable, Bool> env) {
+        byte[] model = new byte[numVariables];
+        for (Map.Entry<Variable, Bool> e : env.entrySet()) {
+            int var = varOf(e.getKey());
+            if (var >= 0) {
+                model[var] = Lits.fromBool(e.getValue());
+            }
+        }
+        return model;
+    }
+
+    /**
+     * @return number of variables; every literal has a variable below this
+     */
+    public int getNumVariables() {
+        return numVariables;
+    }
+
+    /**
+     * @return number of clauses
+     */
+    public int getNumClauses() {
+        return numClauses;
+    }
+
+    /**
+     * @return number of literals in the widest clause
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * The shared literal arena. Callers must not modify it.
+     * @return the array holding the literals of every clause
+     */
+    public int[] getLiterals() {
+        return literals;
+    }
+
+    /**
+     * @return index in getLiterals() of the first literal of clause i
+     */
+    public int clauseStart(int i) {
+        return starts[i];
+    }
+
+    /**
+     * @return index in getLiterals() just past the last literal of clause i
+     */
+    public int clauseEnd(int i) {
+        return starts[i + 1];
+    }
+
+    /**
+     * @return number of literals in clause i
+     */
+    public int clauseSize(int i) {
+        return starts[i + 1] - starts[i];
+    }
+
+    public String toString() {
+        StringBuilder result = new StringBuilder("IntFormula[");
+        for (int i = 0; i < numClauses; i++) {
+            result.append("\n(");
+            for (int j = starts[i]; j < starts[i + 1]; j++) {
+                if (j != starts[i]) result.append(' ');
+                result.append(Lits.toString(literals[j]));
+            }
+            result.append(')');
+        }
+        return result.append(']').toString();
+    }
+
+    /**
+     * Accumulates clauses for an IntFormula. Duplicate literals are dropped
+     * from a clause, and a clause containing a literal and its negation is
+     * left out entirely since it is always true.
+     */
+    public static class Builder {
+        private final int numVariables;
+        private final Variable[] variables;
+        private final HashMap<Variable, Integer> numbers;
+        private int[] literals = new int[1024];
+        private int size = 0;
+        private int[] starts = new int[257];
+        private int numClauses = 0;
+        private int degree = 0;
+
+        // seen[l] == stamp iff l is already in the clause being added
+        private final int[] seen;
+        private int stamp = 0;
+
+        // Scratch space for addDimacsClause
+        private int[] encoded = new int[16];
+
+        /**
+         * Start a formula over variables numbered as in a DIMACS file:
+         * variable n of the file is numbered n - 1.
+         */
+        public Builder(int numVariables) {
+            this(numVariables, null, null);
+        }
+
+        private Builder(int numVariables, Variable[] variables, HashMap<Variable, Integer> numbers) {
+            this.numVariables = numVariables;
+            this.variables = variables;
+            this.numbers = numbers;
+            this.seen = new int[2 * numVariables];
+        }
+
+        /**
+         * Add the clause clause[0..size-1], given in the encoding of Lits.
+         */
+        public Builder addClause(int[] clause, int size) {
+            stamp += 1;
+            int start = this.size;
+            ensureCapacity(start + size);
+            for (int i = 0; i < size; i++) {
+                int lit = clause[i];
+                assert Lits.var(lit) < numVariables : "IntFormula.Builder: variable out of range";
+                if (seen[Lits.negate(lit)] == stamp) {
+                    // Tautology, drop the whole clause
+                    this.size = start;
+                    return this;
+                }
+                if (seen[lit] != stamp) {
+                    seen[lit] = stamp;
+                    literals[this.size++] = lit;
+                }
+            }
+
+            if (numClauses + 2 > starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            numClauses += 1;
+            starts[numClauses] = this.size;
+            degree = Math.max(degree, this.size - start);
+            return this;
+        }
+
+        /**
+         * Add the clause clause[0..size-1], given as DIMACS literals.
+         */
+        public Builder addDimacsClause(int[] clause, int size) {
+            if (size > encoded.length) {
+                encoded = new int[Math.max(size, encoded.length * 2)];
+            }
+            for (int i = 0; i < size; i++) {
+                encoded[i] = Lits.fromDimacs(clause[i]);
+            }
+            return addClause(encoded, size);
+        }
+
+        public IntFormula build() {
+            return new IntFormula(numVariables, numClauses, Arrays.copyOf(literals, size),
+                    Arrays.copyOf(starts, numClauses + 1), degree, variables, numbers);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > literals.length) {
+                literals = Arrays.copyOf(literals, Math.max(capacity, literals.length * 2));
+            }
+        }
+    }
+}
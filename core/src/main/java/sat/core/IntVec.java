@@ -0,0 +1,85 @@
+package sat.core;
+
+import java.util.Arrays;
+
+/**
+ * A growable array of ints, used by the engines where an ArrayList of
+ * Integer would box every element.
+ */
+public class IntVec {
+    private int[] data;
+    private int size = 0;
+
+    public IntVec() {
+        this(4);
+    }
+
+    public IntVec(int capacity) {
+        data = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Append x to the end of this.
+     */
+    public void push(int x) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        data[size++] = x;
+    }
+
+    /**
+     * Remove and return the last element.
+     * Requires: this is nonempty
+     */
+    public int pop() {
+        return data[--size];
+    }
+
+    /**
+     * @return the last element
+     * Requires: this is nonempty
+     */
+    public int last() {
+        return data[size - 1];
+    }
+
+    public int get(int i) {
+        return data[i];
+    }
+
+    public void set(int i, int x) {
+        data[i] = x;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Drop every element from index newSize on.
+     * Requires: 0 <= newSize <= size()
+     */
+    public void shrink(int newSize) {
+        size = newSize;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return a copy of the elements of this
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,108 @@
+package sat.core;
+
+import sat.env.Bool;
+import sat.formula.Literal;
+import sat.formula.NegLiteral;
+
+/**
+ * Helpers for the primitive literal encoding used by the int based engines.
+ *
+ * Variables are numbered densely from 0. The literal of variable v is 2v and
+ * its negation is 2v+1, so negating is a single xor and literals can index
+ * arrays of size 2 * numVariables directly.
+ *
+ * Assignments are kept as a byte per variable: TRUE, FALSE or UNDEFINED.
+ * UNDEFINED is 0 so that a freshly allocated array is the empty assignment,
+ * and FALSE is -TRUE so that the value of a negative literal is the negated
+ * value of its variable.
+ */
+public final class Lits {
+    public static final byte TRUE = 1;
+    public static final byte FALSE = -1;
+    public static final byte UNDEFINED = 0;
+
+    private Lits() {
+    }
+
+    /**
+     * @return the literal of variable var, negated if negative is true
+     */
+    public static int make(int var, boolean negative) {
+        return (var << 1) | (negative ? 1 : 0);
+    }
+
+    /**
+     * @return the variable of lit
+     */
+    public static int var(int lit) {
+        return lit >>> 1;
+    }
+
+    /**
+     * @return true iff lit is the negation of its variable
+     */
+    public static boolean isNegative(int lit) {
+        return (lit & 1) != 0;
+    }
+
+    /**
+     * @return the negation of lit
+     */
+    public static int negate(int lit) {
+        return lit ^ 1;
+    }
+
+    /**
+     * @return value of lit under assignment, which is indexed by variable
+     */
+    public static byte value(byte[] assignment, int lit) {
+        byte v = assignment[lit >>> 1];
+        return (lit & 1) == 0 ? v : (byte) -v;
+    }
+
+    /**
+     * @return the literal for a DIMACS literal (a non-zero signed variable
+     * number, numbered from 1)
+     */
+    public static int fromDimacs(int dimacs) {
+        return dimacs > 0 ? (dimacs - 1) << 1 : ((-dimacs - 1) << 1) | 1;
+    }
+
+    /**
+     * @return the DIMACS form of lit
+     */
+    public static int toDimacs(int lit) {
+        int number = (lit >>> 1) + 1;
+        return (lit & 1) == 0 ? number : -number;
+    }
+
+    /**
+     * Encode an interned literal, using the id of its variable.
+     * Requires: l was created through PosLiteral.make or NegLiteral.make
+     */
+    public static int fromLiteral(Literal l) {
+        return make(l.getVariable().getId(), l instanceof NegLiteral);
+    }
+
+    /**
+     * @return the Bool corresponding to an assignment value
+     */
+    public static Bool toBool(byte value) {
+        if (value == TRUE) return Bool.TRUE;
+        if (value == FALSE) return Bool.FALSE;
+        return Bool.UNDEFINED;
+    }
+
+    /**
+     * @return the assignment value corresponding to b; null counts as UNDEFINED
+     */
+    public static byte fromBool(Bool b) {
+        if (b == Bool.TRUE) return TRUE;
+        if (b == Bool.FALSE) return FALSE;
+        return UNDEFINED;
+    }
+
+    public static String toString(int lit) {
+        return String.valueOf(toDimacs(lit));
+    }
+}
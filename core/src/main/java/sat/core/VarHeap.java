@@ -0,0 +1,134 @@
+package sat.core;
+
+import java.util.Arrays;
+
+/**
+ * A binary max-heap of variables ordered by a score array that the caller
+ * owns, with the position of each variable kept so that a variable whose
+ * score went up can be moved up in place.
+ *
+ * Ties are broken towards the lower variable, so with all scores equal
+ * variables come out in order.
+ */
+public class VarHeap {
+    private double[] scores;
+    private int[] heap;
+    private int[] position; // position[v] is the index of v in heap, or -1
+    private int size = 0;
+
+    /**
+     * Make an empty heap of variables below scores.length, ordered by scores.
+     * The heap must be told (increased) whenever the score of a variable in
+     * it goes up, and must not see a score go down while the variable is in it.
+     */
+    public VarHeap(double[] scores) {
+        this.scores = scores;
+        heap = new int[scores.length];
+        position = new int[scores.length];
+        for (int v = 0; v < position.length; v++) {
+            position[v] = -1;
+        }
+    }
+
+    /**
+     * Order by scores from now on, a copy of the score array extended with
+     * the scores of more variables, none of which is in the heap yet.
+     */
+    public void grow(double[] scores) {
+        int old = position.length;
+        this.scores = scores;
+        heap = Arrays.copyOf(heap, scores.length);
+        position = Arrays.copyOf(position, scores.length);
+        Arrays.fill(position, old, position.length, -1);
+    }
+
+    public boolean contains(int var) {
+        return position[var] >= 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add var, unless it is already in the heap.
+     */
+    public void insert(int var) {
+        if (contains(var)) {
+            return;
+        }
+        heap[size] = var;
+        position[var] = size;
+        size += 1;
+        up(size - 1);
+    }
+
+    /**
+     * Remove and return the variable of highest score.
+     * Requires: this is nonempty
+     */
+    public int removeMax() {
+        int top = heap[0];
+        size -= 1;
+        position[top] = -1;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            down(0);
+        }
+        return top;
+    }
+
+    /**
+     * Restore the order after the score of var went up.
+     */
+    public void increased(int var) {
+        if (contains(var)) {
+            up(position[var]);
+        }
+    }
+
+    private boolean before(int a, int b) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    private void up(int i) {
+        int var = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (!before(var, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = var;
+        position[var] = i;
+    }
+
+    private void down(int i) {
+        int var = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child += 1;
+            }
+            if (!before(heap[child], var)) {
+                break;
+            }
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = var;
+        position[var] = i;
+    }
+}
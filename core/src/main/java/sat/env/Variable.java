@@ -15,11 +15,22 @@ public class Variable {
     /*
      * Rep invariant
      *     name != null
+     *     id >= 0 for variables allocated by PosLiteral.make, -1 otherwise
      */
     private final String name;
+    private final int id;
 
     public Variable (String name) {
+        this(name, -1);
+    }
+
+    /**
+     * Create a variable with a dense integer id, as handed out when
+     * literals are interned. Ids of interned variables are distinct.
+     */
+    public Variable (String name, int id) {
         this.name = name;
+        this.id = id;
     }
 
     public Bool eval (Environment e) {
@@ -32,6 +43,13 @@ public class Variable {
     public String getName () {
         return name;
     }
+
+    /**
+     * @return the dense id of this variable, or -1 if it was not interned
+     */
+    public int getId () {
+        return id;
+    }
     
     /**
      * @return true iff this and o represent the same literal
@@ -43,4 +61,12 @@ public class Variable {
         Variable v = (Variable) o;
         return v.name.equals(name); 
     }
+
+    /**
+     * @return hash of the name, consistent with equals
+     */
+    @Override
+    public int hashCode () {
+        return name.hashCode();
+    }
 }
@@ -5,9 +5,9 @@
  * (c) 2008, MIT and Daniel Jackson
  */
 package sat.formula;
-import immutable.EmptyImList;
 import immutable.ImList;
-import immutable.NonEmptyImList;
+import immutable.VectorImList;
+import sat.core.Lits;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -23,6 +23,8 @@ import java.util.List;
  */
 public class Clause implements Iterable<Literal> {
     private final ImList<Literal> literals;
+    // The literals in the encoding of sat.core.Lits, filled in by the first eval
+    private volatile int[] encoded;
     /*
      * Rep invariant:
      *       literals is non null but may be empty 
@@ -69,7 +71,7 @@ public class Clause implements Iterable<Literal> {
      * @return a clause contain a single literal
      */
     public Clause(Literal literal) {
-        this(new NonEmptyImList<Literal>(literal));
+        this(new VectorImList<Literal>(literal));
         checkRep();
     }
 
@@ -77,7 +79,7 @@ public class Clause implements Iterable<Literal> {
      * @return an empty clause
      */
     public Clause() {
-        this(new EmptyImList<Literal>());
+        this(new VectorImList<Literal>());
         checkRep();
     }
 
@@ -181,6 +183,37 @@ public class Clause implements Iterable<Literal> {
         }
     }
 
+    /**
+     * Evaluate this clause without allocating, against an assignment holding
+     * Lits.TRUE, Lits.FALSE or Lits.UNDEFINED for each variable, indexed by
+     * variable id. Variables beyond the end of the assignment are undefined.
+     * @return Lits.TRUE if some literal is true, Lits.FALSE if all of them
+     * are false, Lits.UNDEFINED otherwise
+     */
+    public byte eval(byte[] assignment) {
+        int[] lits = encoded;
+        if (lits == null) {
+            lits = encode();
+        }
+        byte result = Lits.FALSE;
+        for (int lit : lits) {
+            int var = Lits.var(lit);
+            byte value = var < assignment.length ? Lits.value(assignment, lit) : Lits.UNDEFINED;
+            if (value == Lits.TRUE) return Lits.TRUE;
+            if (value == Lits.UNDEFINED) result = Lits.UNDEFINED;
+        }
+        return result;
+    }
+
+    private int[] encode() {
+        int[] lits = new int[size()];
+        int i = 0;
+        for (Literal l: literals)
+            lits[i++] = Lits.fromLiteral(l);
+        encoded = lits;
+        return lits;
+    }
+
     public String toString() {
         return "Clause" + literals;
     }
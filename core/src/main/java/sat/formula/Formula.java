@@ -6,10 +6,9 @@
  */
 package sat.formula;
 
-import immutable.EmptyImList;
 import immutable.ImList;
-import immutable.ImListIterator;
-import immutable.NonEmptyImList;
+import immutable.VectorImList;
+import sat.core.Lits;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -23,6 +22,8 @@ import sat.env.Variable;
  */
 public class Formula {
     private final ImList<Clause> clauses;
+    // The clauses in iteration order, filled in on first use by the evaluation methods
+    private volatile Clause[] clauseArray;
 
     // Rep invariant:
     // clauses != null
@@ -52,7 +53,7 @@ public class Formula {
      * @return the true problem
      */
     public Formula() {
-        this(new EmptyImList<Clause>());
+        this(new VectorImList<Clause>());
         checkRep();
     }
 
@@ -72,7 +73,7 @@ public class Formula {
      * @return the problem with a single clause c
      */
     public Formula(Clause c) {
-        this(new NonEmptyImList<Clause>(c));
+        this(new VectorImList<Clause>(c));
     }
 
     private Formula(ImList<Clause> clauses) {
@@ -104,7 +105,7 @@ public class Formula {
      *         order
      */
     public Iterator<Clause> iterator() {
-        return new ImListIterator<Clause>(clauses);
+        return clauses.iterator();
     }
 
     /**
@@ -122,7 +123,7 @@ public class Formula {
      * @return a new problem corresponding to the disjunction of this and p
      */
     public Formula or(Formula p) {
-        ImList<Clause> result = new EmptyImList<Clause>();
+        ImList<Clause> result = new VectorImList<Clause>();
         for (Clause c1 : p.clauses) {
             for (Clause c2 : clauses) {
                 Clause c = c1.merge(c2);
@@ -151,7 +152,7 @@ public class Formula {
      */
     private static Formula negate(Clause c) {
         // explode: make list of unit clauses
-        ImList<Clause> result = new EmptyImList<Clause>();
+        ImList<Clause> result = new VectorImList<Clause>();
         for (Literal l : c) {
             result = result.add(new Clause(l.getNegation()));
         }
@@ -166,6 +167,91 @@ public class Formula {
         return clauses.size();
     }
 
+    /**
+     * Get a clause by its position in iteration order.
+     * Requires: 0 <= i < getSize()
+     *
+     * @return the ith clause yielded by iterator()
+     */
+    public Clause getClause(int i) {
+        return clauseArray()[i];
+    }
+
+    /**
+     * Evaluate this formula without allocating, against an assignment indexed
+     * by variable id (see Clause.eval).
+     *
+     * @return Lits.FALSE if some clause is false, Lits.TRUE if all of them are
+     *         true, Lits.UNDEFINED otherwise
+     */
+    public byte eval(byte[] assignment) {
+        byte result = Lits.TRUE;
+        for (Clause c : clauseArray()) {
+            byte value = c.eval(assignment);
+            if (value == Lits.FALSE) return Lits.FALSE;
+            if (value == Lits.UNDEFINED) result = Lits.UNDEFINED;
+        }
+        return result;
+    }
+
+    /**
+     * @return number of clauses that are not true under assignment, which is
+     *         indexed by variable id (see Clause.eval)
+     */
+    public int countUnsatisfied(byte[] assignment) {
+        return countUnsatisfied(assignment, 0, getSize());
+    }
+
+    /**
+     * Requires: 0 <= from <= to <= getSize()
+     *
+     * @return number of clauses getClause(from) .. getClause(to - 1) that are
+     *         not true under assignment
+     */
+    public int countUnsatisfied(byte[] assignment, int from, int to) {
+        Clause[] array = clauseArray();
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (array[i].eval(assignment) != Lits.TRUE) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return position of the first clause in iteration order that is not
+     *         true under assignment, which is indexed by variable id (see
+     *         Clause.eval), or -1 if every clause is true
+     */
+    public int firstUnsatisfied(byte[] assignment) {
+        return firstUnsatisfied(assignment, 0, getSize());
+    }
+
+    /**
+     * Requires: 0 <= from <= to <= getSize()
+     *
+     * @return position of the first of getClause(from) .. getClause(to - 1)
+     *         that is not true under assignment, or -1 if they all are
+     */
+    public int firstUnsatisfied(byte[] assignment, int from, int to) {
+        Clause[] array = clauseArray();
+        for (int i = from; i < to; i++) {
+            if (array[i].eval(assignment) != Lits.TRUE) return i;
+        }
+        return -1;
+    }
+
+    private Clause[] clauseArray() {
+        Clause[] array = clauseArray;
+        if (array == null) {
+            array = new Clause[clauses.size()];
+            int i = 0;
+            for (Clause c : clauses)
+                array[i++] = c;
+            clauseArray = array;
+        }
+        return array;
+    }
+
     public String toString() {
         String result = "Problem[";
         for (Clause c : clauses)
@@ -173,15 +259,20 @@ public class Formula {
         return result + "]";
     }
 
+    /**
+     * Sort clauses by size, smallest first, in O(m log m).
+     *
+     * @return a list of the clauses in clauses, ordered by ClauseComparator
+     */
     public ImList<Clause> sort(ImList<Clause> clauses){ //to sort formula so we dont have to sort 6000 times thank u
         ArrayList<Clause> ls = new ArrayList<>();
         for (Clause c: clauses){
             ls.add(c);
         }
         Collections.sort(ls, new ClauseComparator());
-        ImList<Clause> newClauses = clauses;
+        // add puts each clause in front, so add the largest first
+        ImList<Clause> newClauses = new VectorImList<Clause>();
         for (int i = ls.size()-1; i >= 0 ; i--) {
-            newClauses = newClauses.remove(ls.get(i));
             newClauses = newClauses.add(ls.get(i));
         }
         return newClauses;
@@ -6,6 +6,7 @@
  */
 package sat.formula;
 
+import sat.core.Lits;
 import sat.env.*;
 
 /**
@@ -55,6 +56,18 @@ public abstract class Literal {
         }
     }
 
+    /**
+     * Evaluate this literal without allocating, against an assignment holding
+     * Lits.TRUE, Lits.FALSE or Lits.UNDEFINED for each variable, indexed by
+     * variable id. Variables beyond the end of the assignment are undefined.
+     * @return the value of this literal under assignment
+     */
+    public byte eval (byte[] assignment) {
+        int id = var.getId();
+        byte value = id >= 0 && id < assignment.length ? assignment[id] : Lits.UNDEFINED;
+        return this instanceof PosLiteral ? value : (byte) -value;
+    }
+
     /**
      * @return the variable associated with this literal
      */
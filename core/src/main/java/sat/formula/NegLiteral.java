@@ -17,8 +17,8 @@ import sat.env.Variable;
 public class NegLiteral extends Literal {
 
     // should NOT be used by clients
-    NegLiteral(String name) {
-        super(name);
+    NegLiteral(Variable var) {
+        super(var);
     }
 
     public static NegLiteral make (Variable var) {
@@ -0,0 +1,121 @@
+/**
+ * Author: dnj
+ * Date: Mar 5, 2008, 9:57:47 PM
+ * 6.005 Elements of Software Construction
+ * (c) 2008, MIT and Daniel Jackson
+ */
+package sat.formula;
+
+import sat.env.Variable;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class representing positive literals.
+ * Works with NegLiteral to ensure interning of literals.
+ * PosLiteral objects are immutable.
+ */
+public class PosLiteral extends Literal {
+    /*
+     * Positive literals that have already been allocated, indexed by the id of
+     * their variable. Ids are handed out densely from 0 in allocation order.
+     * The array only grows; it is copied and republished under the lock.
+     * Invariant: allocatedById[0..allocatedCount-1] non null, and
+     *   allocatedById[i].var.getId() == i
+     */
+    private static volatile PosLiteral[] allocatedById = new PosLiteral[64];
+    private static volatile int allocatedCount = 0;
+
+    /*
+     * Side index of the allocated positive literals, keyed on their names.
+     * Invariant: contains exactly the literals in allocatedById
+     */
+    private static final ConcurrentHashMap<String,PosLiteral> allocatedByName =
+            new ConcurrentHashMap<String,PosLiteral>();
+
+    private static final Object lock = new Object();
+
+    private PosLiteral (Variable var) {
+        super (var);
+    }
+
+    public static PosLiteral make (Variable var) {
+        return make(var.getName());
+    }
+
+    /**
+     * Factory method. Preserves the invariant that only one object
+     * will exist to represent a literal of a given name, even when called
+     * from several threads at once.
+     * @return the positive literal with the given name
+     */
+    public static PosLiteral make (String name) {
+        PosLiteral literal = allocatedByName.get(name);
+        if (literal==null) {
+            literal = allocate(name);
+        }
+        literal.checkRep();
+        return literal;
+    }
+
+    /**
+     * Look up an allocated literal by the id of its variable.
+     * @return the positive literal whose variable has the given id, or null
+     * if no variable with that id has been allocated
+     */
+    public static PosLiteral forId (int id) {
+        PosLiteral[] table = allocatedById;
+        if (id < 0 || id >= table.length) return null;
+        return table[id];
+    }
+
+    /**
+     * Look up an allocated literal by name, without allocating one.
+     * @return the positive literal with the given name, or null if none has
+     * been allocated
+     */
+    public static PosLiteral forName (String name) {
+        return allocatedByName.get(name);
+    }
+
+    /**
+     * @return number of variables allocated so far; every id handed out is
+     * below this number
+     */
+    public static int numAllocated () {
+        return allocatedCount;
+    }
+
+    // Slow path of make: allocate under the lock unless another thread got there first
+    private static PosLiteral allocate (String name) {
+        synchronized (lock) {
+            PosLiteral literal = allocatedByName.get(name);
+            if (literal != null) {
+                return literal;
+            }
+
+            int id = allocatedCount;
+            Variable var = new Variable(name, id);
+            literal = new PosLiteral(var);
+            NegLiteral negated = new NegLiteral(var);
+            literal.negation = negated;
+            negated.negation = literal;
+
+            PosLiteral[] table = allocatedById;
+            if (id == table.length) {
+                table = Arrays.copyOf(table, table.length * 2);
+            }
+            table[id] = literal;
+            allocatedById = table;
+            allocatedCount = id + 1;
+            // Publish by name last, so a literal found by name is also found by id
+            allocatedByName.put(name, literal);
+            return literal;
+        }
+    }
+
+    public String toString () {
+        return var.toString();
+    }
+}
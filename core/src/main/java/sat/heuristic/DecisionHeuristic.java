@@ -0,0 +1,46 @@
+package sat.heuristic;
+
+import sat.core.IntFormula;
+
+/**
+ * Chooses the decisions of CdclSolver.
+ *
+ * The solver calls init once before search, pick for every decision, bump
+ * for each variable met while analysing a conflict and decay once the
+ * conflict is learnt, and unassign for every assignment undone on
+ * backtracking. When added clauses bring in variables beyond those of the
+ * formula, it calls grow. A heuristic belongs to a single solver.
+ */
+public interface DecisionHeuristic {
+    /**
+     * Prepare to pick decisions for formula.
+     */
+    void init(IntFormula formula);
+
+    /**
+     * Take the variables from the current count up to numVariables - 1,
+     * all unassigned, as candidates too.
+     */
+    void grow(int numVariables);
+
+    /**
+     * @return an unassigned literal to make true next, or -1 if every
+     *         variable is assigned
+     */
+    int pick(byte[] assigns);
+
+    /**
+     * Note that var took part in a conflict.
+     */
+    void bump(int var);
+
+    /**
+     * Note that a conflict has been analysed.
+     */
+    void decay();
+
+    /**
+     * Note that var, which had the given value, is unassigned again.
+     */
+    void unassign(int var, byte value);
+}
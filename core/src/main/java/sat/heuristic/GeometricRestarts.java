@@ -0,0 +1,26 @@
+package sat.heuristic;
+
+/**
+ * Restarts after first conflicts, then after runs each factor times longer
+ * than the one before.
+ */
+public class GeometricRestarts implements RestartPolicy {
+    private final double factor;
+    private double limit;
+    private long sinceRestart = 0;
+
+    public GeometricRestarts(int first, double factor) {
+        this.limit = first;
+        this.factor = factor;
+    }
+
+    public boolean conflict(int lbd) {
+        sinceRestart += 1;
+        if (sinceRestart < limit) {
+            return false;
+        }
+        sinceRestart = 0;
+        limit *= factor;
+        return true;
+    }
+}
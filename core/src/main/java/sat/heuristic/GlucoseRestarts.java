@@ -0,0 +1,46 @@
+package sat.heuristic;
+
+/**
+ * Glucose-style restarts on exponential moving averages of the LBD of learnt
+ * clauses: a fast one over about the last 32 conflicts and a slow one over
+ * about the last 16384. The solver restarts when the recent clauses are
+ * markedly worse than usual, the fast average exceeding margin times the
+ * slow one, and at least minRun conflicts have passed since the last
+ * restart.
+ *
+ * Both averages start out as plain means of the LBDs seen so far, by never
+ * weighting a new LBD less than 1/n after n conflicts, so that they are not
+ * biased towards 0 at the start.
+ */
+public class GlucoseRestarts implements RestartPolicy {
+    private static final double FAST_ALPHA = 1.0 / 32;
+    private static final double SLOW_ALPHA = 1.0 / 16384;
+
+    private final int minRun;
+    private final double margin;
+    private double fast = 0;
+    private double slow = 0;
+    private long conflicts = 0;
+    private long sinceRestart = 0;
+
+    public GlucoseRestarts() {
+        this(50, 1.25);
+    }
+
+    public GlucoseRestarts(int minRun, double margin) {
+        this.minRun = minRun;
+        this.margin = margin;
+    }
+
+    public boolean conflict(int lbd) {
+        conflicts += 1;
+        sinceRestart += 1;
+        fast += (lbd - fast) * Math.max(FAST_ALPHA, 1.0 / conflicts);
+        slow += (lbd - slow) * Math.max(SLOW_ALPHA, 1.0 / conflicts);
+        if (sinceRestart < minRun || fast <= margin * slow) {
+            return false;
+        }
+        sinceRestart = 0;
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package sat.heuristic;
+
+/**
+ * Restarts after unit * luby(i) conflicts for the i-th run, where luby is
+ * 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ... Mostly short runs, with
+ * a run of any length eventually, which is within a log factor of the best
+ * fixed schedule for any search.
+ */
+public class LubyRestarts implements RestartPolicy {
+    private final int unit;
+    private int run = 0;
+    private long limit;
+    private long sinceRestart = 0;
+
+    public LubyRestarts(int unit) {
+        this.unit = unit;
+        this.limit = unit * luby(run);
+    }
+
+    public boolean conflict(int lbd) {
+        sinceRestart += 1;
+        if (sinceRestart < limit) {
+            return false;
+        }
+        sinceRestart = 0;
+        run += 1;
+        limit = unit * luby(run);
+        return true;
+    }
+
+    /**
+     * @return the i-th term of the Luby sequence, counting from 0
+     */
+    static long luby(int i) {
+        // Find the complete subsequence of size 2^k - 1 containing i, then
+        // narrow down to the copy of a smaller one that i falls in
+        int size = 1;
+        int k = 0;
+        while (size < i + 1) {
+            k += 1;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            k -= 1;
+            i = i % size;
+        }
+        return 1L << k;
+    }
+}
@@ -0,0 +1,89 @@
+package sat.heuristic;
+
+import sat.core.IntFormula;
+import sat.core.Lits;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Decides the first unassigned variable in a fixed order, false first.
+ *
+ * The order is that of the variables unless a Random is given, which
+ * shuffles it and picks the value tried first for each variable. Conflicts
+ * are ignored.
+ */
+public class OrderHeuristic implements DecisionHeuristic {
+    private final Random random;
+    private int[] order; // decision order of the variables
+    private int[] orderPos; // orderPos[v] is the position of v in order
+    private boolean[] positiveFirst;
+    private int next = 0; // every variable before position next of order is assigned
+
+    public OrderHeuristic() {
+        this(null);
+    }
+
+    public OrderHeuristic(Random random) {
+        this.random = random;
+    }
+
+    public void init(IntFormula formula) {
+        int numVariables = formula.getNumVariables();
+        order = new int[numVariables];
+        orderPos = new int[numVariables];
+        positiveFirst = new boolean[numVariables];
+        for (int v = 0; v < numVariables; v++) {
+            order[v] = v;
+        }
+        if (random != null) {
+            for (int i = numVariables - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            for (int v = 0; v < numVariables; v++) {
+                positiveFirst[v] = random.nextBoolean();
+            }
+        }
+        for (int i = 0; i < numVariables; i++) {
+            orderPos[order[i]] = i;
+        }
+    }
+
+    // New variables come last, in order
+    public void grow(int numVariables) {
+        int old = order.length;
+        order = Arrays.copyOf(order, numVariables);
+        orderPos = Arrays.copyOf(orderPos, numVariables);
+        positiveFirst = Arrays.copyOf(positiveFirst, numVariables);
+        for (int v = old; v < numVariables; v++) {
+            order[v] = v;
+            orderPos[v] = v;
+            positiveFirst[v] = random != null && random.nextBoolean();
+        }
+    }
+
+    public int pick(byte[] assigns) {
+        while (next < order.length && assigns[order[next]] != Lits.UNDEFINED) {
+            next += 1;
+        }
+        if (next == order.length) {
+            return -1;
+        }
+        return Lits.make(order[next], !positiveFirst[order[next]]);
+    }
+
+    public void bump(int var) {
+    }
+
+    public void decay() {
+    }
+
+    public void unassign(int var, byte value) {
+        if (orderPos[var] < next) {
+            next = orderPos[var];
+        }
+    }
+}
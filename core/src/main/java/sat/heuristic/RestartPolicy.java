@@ -0,0 +1,17 @@
+package sat.heuristic;
+
+/**
+ * Decides when CdclSolver restarts, undoing every decision while keeping
+ * what it has learnt.
+ *
+ * The solver calls conflict after learning from each conflict, and restarts
+ * when it returns true. A policy belongs to a single solver.
+ */
+public interface RestartPolicy {
+    /**
+     * Note a conflict whose learnt clause has the given LBD (the number of
+     * decision levels among its literals).
+     * @return true if the solver should restart now
+     */
+    boolean conflict(int lbd);
+}
@@ -0,0 +1,69 @@
+package sat.heuristic;
+
+import sat.core.IntFormula;
+import sat.core.Lits;
+
+/**
+ * The rule of the DPLL in SATSolver: decide the first unassigned literal of
+ * the smallest clause, counting only the unassigned literals of clauses not
+ * yet satisfied. Only the clauses of the original formula are looked at, and
+ * every decision scans all of them, so a decision costs time linear in the
+ * size of the formula. Once every clause is satisfied, the remaining
+ * variables are decided false in order. Conflicts are ignored.
+ */
+public class SmallestClauseHeuristic implements DecisionHeuristic {
+    private IntFormula formula;
+    private int[] literals;
+
+    public void init(IntFormula formula) {
+        this.formula = formula;
+        this.literals = formula.getLiterals();
+    }
+
+    public void grow(int numVariables) {
+    }
+
+    public int pick(byte[] assigns) {
+        int best = -1;
+        int bestSize = Integer.MAX_VALUE;
+        for (int c = 0; c < formula.getNumClauses() && bestSize > 1; c++) {
+            int first = -1;
+            int size = 0;
+            boolean satisfied = false;
+            for (int j = formula.clauseStart(c); j < formula.clauseEnd(c) && !satisfied; j++) {
+                byte value = Lits.value(assigns, literals[j]);
+                if (value == Lits.TRUE) {
+                    satisfied = true;
+                }
+                else if (value == Lits.UNDEFINED) {
+                    if (first == -1) {
+                        first = literals[j];
+                    }
+                    size += 1;
+                }
+            }
+            if (!satisfied && first != -1 && size < bestSize) {
+                best = first;
+                bestSize = size;
+            }
+        }
+        if (best != -1) {
+            return best;
+        }
+        for (int v = 0; v < assigns.length; v++) {
+            if (assigns[v] == Lits.UNDEFINED) {
+                return Lits.make(v, true);
+            }
+        }
+        return -1;
+    }
+
+    public void bump(int var) {
+    }
+
+    public void decay() {
+    }
+
+    public void unassign(int var, byte value) {
+    }
+}
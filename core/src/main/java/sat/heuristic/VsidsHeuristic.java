@@ -0,0 +1,117 @@
+package sat.heuristic;
+
+import sat.core.IntFormula;
+import sat.core.Lits;
+import sat.core.VarHeap;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Exponential VSIDS with phase saving.
+ *
+ * Every variable has an activity, and the unassigned variable of highest
+ * activity is decided next. Variables met in a conflict have their activity
+ * raised by an increment that grows by a factor of 1/decay after every
+ * conflict, which ages old bumps exponentially without touching every
+ * variable; when the increment gets too large, all activities are scaled
+ * down together. The candidates are kept in a VarHeap, so a decision costs
+ * O(log n) rather than a scan of the variables or clauses.
+ *
+ * A variable is decided with the value it last had (phase saving), false if
+ * it never had one, so that backjumping does not throw away the assignment
+ * of the parts of the problem it did not concern.
+ */
+public class VsidsHeuristic implements DecisionHeuristic {
+    private static final double RESCALE_LIMIT = 1e100;
+
+    private final double decay;
+    private final Random random;
+    private double[] activity;
+    private VarHeap heap;
+    private byte[] phase;
+    private double increment = 1;
+
+    /**
+     * EVSIDS with the usual decay of 0.95.
+     */
+    public VsidsHeuristic() {
+        this(0.95, null);
+    }
+
+    /**
+     * @param decay factor by which the weight of earlier bumps shrinks after
+     *        each conflict; requires 0 < decay <= 1, and 1 gives plain VSIDS
+     *        without aging
+     * @param random if not null, starting activities and phases are drawn
+     *        from it, so that solvers given different seeds search
+     *        differently
+     */
+    public VsidsHeuristic(double decay, Random random) {
+        this.decay = decay;
+        this.random = random;
+    }
+
+    public void init(IntFormula formula) {
+        activity = new double[0];
+        phase = new byte[0];
+        heap = new VarHeap(activity);
+        grow(formula.getNumVariables());
+    }
+
+    public void grow(int numVariables) {
+        int old = activity.length;
+        activity = Arrays.copyOf(activity, numVariables);
+        phase = Arrays.copyOf(phase, numVariables);
+        for (int v = old; v < numVariables; v++) {
+            if (random != null) {
+                activity[v] = random.nextDouble() * 1e-5;
+                phase[v] = random.nextBoolean() ? Lits.TRUE : Lits.FALSE;
+            }
+            else {
+                phase[v] = Lits.FALSE;
+            }
+        }
+        heap.grow(activity);
+        for (int v = old; v < numVariables; v++) {
+            heap.insert(v);
+        }
+    }
+
+    public int pick(byte[] assigns) {
+        while (!heap.isEmpty()) {
+            int var = heap.removeMax();
+            if (assigns[var] == Lits.UNDEFINED) {
+                return Lits.make(var, phase[var] == Lits.FALSE);
+            }
+        }
+        return -1;
+    }
+
+    public void bump(int var) {
+        activity[var] += increment;
+        if (activity[var] > RESCALE_LIMIT) {
+            for (int v = 0; v < activity.length; v++) {
+                activity[v] /= RESCALE_LIMIT;
+            }
+            increment /= RESCALE_LIMIT;
+        }
+        heap.increased(var);
+    }
+
+    public void decay() {
+        increment /= decay;
+    }
+
+    public void unassign(int var, byte value) {
+        phase[var] = value;
+        heap.insert(var);
+    }
+
+    /**
+     * @return activity of var
+     */
+    public double getActivity(int var) {
+        return activity[var];
+    }
+}
@@ -0,0 +1,349 @@
+package sat.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import sat.core.IntFormula;
+import sat.formula.Clause;
+import sat.formula.Formula;
+import sat.formula.Literal;
+import sat.formula.PosLiteral;
+
+/**
+ * Streaming reader for problems in DIMACS cnf format.
+ *
+ * The file is read through a fixed size byte buffer and literals are parsed
+ * straight from the bytes, so no String is created per token. Comment lines
+ * ("c ..."), the "p cnf vars clauses" header and clauses spanning several
+ * lines are supported; a clause ends at its terminating 0. A line starting
+ * with '%' (as used by the SATLIB benchmarks) ends the input.
+ *
+ * Parsed clauses are handed to a ClauseHandler, so callers decide what
+ * representation the clauses end up in. read() builds a Formula.
+ */
+public class DimacsReader {
+
+    /**
+     * Receives the contents of a DIMACS file as it is parsed.
+     */
+    public interface ClauseHandler {
+        /**
+         * Called once when the "p cnf" line is read, before any clause.
+         */
+        void header(int numVariables, int numClauses);
+
+        /**
+         * Called once per clause. literals[0..size-1] holds the clause in
+         * DIMACS form (non-zero, signed variable numbers). The array is reused
+         * by the reader, so handlers must copy what they want to keep.
+         */
+        void clause(int[] literals, int size);
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private ByteBuffer wrapped;
+    private FileChannel channel;
+    private int position = 0;
+    private int limit = 0;
+
+    private int numVariables = 0;
+    private int numClauses = 0;
+    private int clausesRead = 0;
+    private int degree = 0;
+    private long bytesRead = 0;
+    private long nanosTaken = 0;
+
+    public DimacsReader(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Parse the file into a Formula. Literals are interned through
+     * PosLiteral.make once per variable rather than once per occurrence.
+     * Clauses containing a literal and its negation are always true and are
+     * left out of the formula.
+     *
+     * @return the formula represented by the file
+     */
+    public Formula read() throws IOException {
+        FormulaBuilder builder = new FormulaBuilder();
+        parse(builder);
+        return builder.formula;
+    }
+
+    /**
+     * Parse the file straight into the clause arena used by the int based
+     * engines, without creating any Literal objects. Variable n of the file
+     * is numbered n - 1.
+     *
+     * @return the formula represented by the file
+     */
+    public IntFormula readIntFormula() throws IOException {
+        IntFormulaBuilder builder = new IntFormulaBuilder();
+        parse(builder);
+        if (builder.builder == null) {
+            throw new IOException("INVALID INPUT: missing p line");
+        }
+        return builder.builder.build();
+    }
+
+    /**
+     * Parse the file, handing the header and every clause to handler.
+     */
+    public void parse(ClauseHandler handler) throws IOException {
+        long started = System.nanoTime();
+        position = 0;
+        limit = 0;
+        bytesRead = 0;
+        clausesRead = 0;
+        degree = 0;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        wrapped = ByteBuffer.wrap(buffer);
+        try {
+            parseAll(handler);
+        }
+        finally {
+            channel.close();
+            channel = null;
+            wrapped = null;
+            nanosTaken = System.nanoTime() - started;
+        }
+    }
+
+    private void parseAll(ClauseHandler handler) throws IOException {
+        int[] literals = new int[16];
+        int size = 0;
+        boolean seenHeader = false;
+
+        int c = next();
+        while (c != -1) {
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                c = next();
+            }
+            else if (c == 'c') {
+                c = skipLine();
+            }
+            else if (c == '%') {
+                break;
+            }
+            else if (c == 'p') {
+                if (seenHeader) {
+                    throw new IOException("INVALID INPUT: duplicate p line");
+                }
+                c = skipBlanks(next());
+                if (c != 'c' || next() != 'n' || next() != 'f') {
+                    throw new IOException("INVALID INPUT: expected p cnf");
+                }
+                numVariables = readUnsigned(skipBlanks(next()));
+                numClauses = readUnsigned(skipBlanks(next()));
+                seenHeader = true;
+                handler.header(numVariables, numClauses);
+                c = next();
+            }
+            else if (c == '-' || (c >= '0' && c <= '9')) {
+                if (!seenHeader) {
+                    throw new IOException("INVALID INPUT: clause before p line");
+                }
+                boolean negative = c == '-';
+                if (negative) {
+                    c = next();
+                }
+                if (c < '0' || c > '9') {
+                    throw new IOException("INVALID INPUT: expected a number");
+                }
+                int value = 0;
+                while (c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    if (value < 0) {
+                        throw new IOException("INVALID INPUT: number too large");
+                    }
+                    c = next();
+                }
+
+                if (value == 0) {
+                    // End of clause
+                    emit(handler, literals, size);
+                    size = 0;
+                }
+                else {
+                    if (value > numVariables) {
+                        throw new IOException("INVALID INPUT: variable " + value
+                                + " exceeds the " + numVariables + " declared");
+                    }
+                    if (size == literals.length) {
+                        int[] grown = new int[size * 2];
+                        System.arraycopy(literals, 0, grown, 0, size);
+                        literals = grown;
+                    }
+                    literals[size++] = negative ? -value : value;
+                }
+            }
+            else {
+                throw new IOException("INVALID INPUT: unexpected character '" + (char) c + "'");
+            }
+        }
+
+        // Be lenient about a missing 0 after the last clause
+        if (size > 0) {
+            emit(handler, literals, size);
+        }
+    }
+
+    private void emit(ClauseHandler handler, int[] literals, int size) {
+        if (size > degree) {
+            degree = size;
+        }
+        clausesRead += 1;
+        handler.clause(literals, size);
+    }
+
+    // Next byte of the file, or -1 at the end of the file
+    private int next() throws IOException {
+        if (position == limit) {
+            wrapped.clear();
+            int n = channel.read(wrapped);
+            if (n <= 0) {
+                return -1;
+            }
+            bytesRead += n;
+            position = 0;
+            limit = n;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    // Skip to the start of the next line, returning the first byte after the newline
+    private int skipLine() throws IOException {
+        int c = next();
+        while (c != '\n' && c != -1) {
+            c = next();
+        }
+        return c == -1 ? -1 : next();
+    }
+
+    private int skipBlanks(int c) throws IOException {
+        while (c == ' ' || c == '\t') {
+            c = next();
+        }
+        return c;
+    }
+
+    // Read a non-negative number starting with c; the byte following it is consumed
+    private int readUnsigned(int c) throws IOException {
+        if (c < '0' || c > '9') {
+            throw new IOException("INVALID INPUT: expected a number in p line");
+        }
+        int value = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            c = next();
+        }
+        if (c != ' ' && c != '\t' && c != '\n' && c != '\r' && c != -1) {
+            throw new IOException("INVALID INPUT: malformed p line");
+        }
+        return value;
+    }
+
+    /**
+     * @return number of variables declared in the p line
+     */
+    public int getNumVariables() {
+        return numVariables;
+    }
+
+    /**
+     * @return number of clauses declared in the p line
+     */
+    public int getNumClauses() {
+        return numClauses;
+    }
+
+    /**
+     * @return number of clauses actually read from the file
+     */
+    public int getClausesRead() {
+        return clausesRead;
+    }
+
+    /**
+     * @return number of literals in the widest clause read
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * @return number of bytes read from the file by the last parse
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return wall time of the last parse in nanoseconds
+     */
+    public long getNanosTaken() {
+        return nanosTaken;
+    }
+
+    /**
+     * @return parse throughput of the last parse in MB/s
+     */
+    public double getThroughput() {
+        if (nanosTaken == 0) {
+            return 0;
+        }
+        return (bytesRead / 1e6) / (nanosTaken / 1e9);
+    }
+
+    /*
+     * Builds a Formula out of the parsed clauses, caching the interned
+     * positive literal of every variable number.
+     */
+    private static class FormulaBuilder implements ClauseHandler {
+        private Formula formula = new Formula();
+        private PosLiteral[] variables = new PosLiteral[0];
+
+        public void header(int numVariables, int numClauses) {
+            variables = new PosLiteral[numVariables + 1];
+        }
+
+        public void clause(int[] literals, int size) {
+            Clause clause = new Clause();
+            for (int i = 0; i < size && clause != null; i++) {
+                int value = literals[i];
+                int var = value < 0 ? -value : value;
+                PosLiteral posLit = variables[var];
+                if (posLit == null) {
+                    posLit = PosLiteral.make(String.valueOf(var));
+                    variables[var] = posLit;
+                }
+                Literal lit = value < 0 ? posLit.getNegation() : posLit;
+                // add returns null when the clause becomes a tautology
+                clause = clause.add(lit);
+            }
+            if (clause != null) {
+                formula = formula.addClause(clause);
+            }
+        }
+    }
+
+    private static class IntFormulaBuilder implements ClauseHandler {
+        private IntFormula.Builder builder;
+
+        public void header(int numVariables, int numClauses) {
+            builder = new IntFormula.Builder(numVariables);
+        }
+
+        public void clause(int[] literals, int size) {
+            builder.addDimacsClause(literals, size);
+        }
+    }
+}
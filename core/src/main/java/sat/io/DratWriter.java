@@ -0,0 +1,176 @@
+package sat.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams a DRAT proof of unsatisfiability, as checked by drat-trim.
+ *
+ * A proof is the sequence of clauses a solver adds to (and deletes from) its
+ * clause database, ending with the empty clause. Clauses are given as DIMACS
+ * literals, numbered as in the cnf file the proof is about. In TEXT format
+ * each is a line "l1 l2 ... 0", prefixed with "d " for a deletion. In
+ * BINARY format each is 'a' or 'd' followed by the literals as variable
+ * length unsigned ints 2 * var + (negative ? 1 : 0), ending with a 0 byte.
+ *
+ * Output goes through a fixed size buffer to a FileChannel. Since solvers
+ * emit clauses deep inside their search loops, write errors are thrown as
+ * UncheckedIOException.
+ */
+public class DratWriter implements Closeable {
+    public enum Format {
+        TEXT, BINARY
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_LITERAL_BYTES = 12; // "-2147483648 " in text, 5 bytes in binary
+
+    private final Format format;
+    private final FileChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+    private int position = 0;
+    private final byte[] digits = new byte[10];
+
+    private long added = 0;
+    private long deleted = 0;
+
+    public DratWriter(Path path, Format format) throws IOException {
+        this.format = format;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Record the addition of the clause literals[0..size-1].
+     */
+    public void add(int[] literals, int size) {
+        added += 1;
+        clause('a', literals, size);
+    }
+
+    /**
+     * Record the addition of the empty clause, which ends a proof.
+     */
+    public void addEmpty() {
+        add(literals(), 0);
+    }
+
+    /**
+     * Record the deletion of the clause literals[0..size-1].
+     */
+    public void delete(int[] literals, int size) {
+        deleted += 1;
+        clause('d', literals, size);
+    }
+
+    /**
+     * @return number of clauses added so far, the empty clause included
+     */
+    public long getAdded() {
+        return added;
+    }
+
+    /**
+     * @return number of clauses deleted so far
+     */
+    public long getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Write out what is buffered and close the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    private static int[] literals(int... literals) {
+        return literals;
+    }
+
+    private void clause(char marker, int[] literals, int size) {
+        ensure(2);
+        if (format == Format.BINARY) {
+            buffer[position++] = (byte) marker;
+        }
+        else if (marker == 'd') {
+            buffer[position++] = 'd';
+            buffer[position++] = ' ';
+        }
+        for (int i = 0; i < size; i++) {
+            ensure(MAX_LITERAL_BYTES);
+            if (format == Format.BINARY) {
+                writeBinary(literals[i]);
+            }
+            else {
+                writeText(literals[i]);
+                buffer[position++] = ' ';
+            }
+        }
+        ensure(2);
+        if (format == Format.BINARY) {
+            buffer[position++] = 0;
+        }
+        else {
+            buffer[position++] = '0';
+            buffer[position++] = '\n';
+        }
+    }
+
+    private void writeBinary(int literal) {
+        int u = literal > 0 ? 2 * literal : -2 * literal + 1;
+        while ((u & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((u & 0x7F) | 0x80);
+            u >>>= 7;
+        }
+        buffer[position++] = (byte) u;
+    }
+
+    private void writeText(int literal) {
+        if (literal < 0) {
+            buffer[position++] = '-';
+            literal = -literal;
+        }
+        int n = 0;
+        do {
+            digits[n++] = (byte) ('0' + literal % 10);
+            literal /= 10;
+        } while (literal > 0);
+        while (n > 0) {
+            buffer[position++] = digits[--n];
+        }
+    }
+
+    // Make room for at least n more bytes
+    private void ensure(int n) {
+        if (position + n > BUFFER_SIZE) {
+            try {
+                flush();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        wrapped.clear();
+        wrapped.limit(position);
+        while (wrapped.hasRemaining()) {
+            channel.write(wrapped);
+        }
+        position = 0;
+    }
+}
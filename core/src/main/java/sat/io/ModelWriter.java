@@ -0,0 +1,187 @@
+package sat.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import sat.core.Lits;
+
+/**
+ * Writes the outcome of solving a DIMACS problem to a file.
+ *
+ * In COMPETITION format (as in the SAT competitions) the first line is
+ * "s SATISFIABLE", "s UNSATISFIABLE" or "s UNKNOWN", and a model follows as
+ * "v" lines of DIMACS literals, the last one ending with 0. In NAME_VALUE
+ * format a model is one "variable:value" line per variable, as in
+ * "12:TRUE", and any other outcome is the single line "null".
+ *
+ * Models are given as a byte per variable in DIMACS order, values as in
+ * Lits, and are written in that order. Variables left UNDEFINED are left
+ * out. The text is formatted straight into a large byte buffer, which is
+ * handed to a FileChannel whenever it fills up, so writing a model creates
+ * no objects per variable. Since variables are written in order, their
+ * numbers are kept as decimal digits and incremented in place rather than
+ * converted by division.
+ */
+public class ModelWriter implements Closeable {
+    public enum Format {
+        COMPETITION, NAME_VALUE
+    }
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_LINE = 80; // Longest "v" line in COMPETITION format
+    private static final int MAX_LITERAL = 12; // " -2147483647"
+    private static final int MAX_ENTRY = 20; // Enough for a literal and a line break, or a "number:FALSE" line
+    private static final byte[] TRUE = ":TRUE\n".getBytes();
+    private static final byte[] FALSE = ":FALSE\n".getBytes();
+
+    private final Format format;
+    private final FileChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+    private int position = 0;
+
+    // Decimal digits of the current variable number in digits[digitsStart..]
+    private final byte[] digits = new byte[10];
+    private int digitsStart;
+
+    public ModelWriter(Path path, Format format) throws IOException {
+        this.format = format;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Write a satisfying assignment.
+     * @param model the value of DIMACS variable i + 1 in model[i], for
+     *        0 <= i < numVariables
+     */
+    public void writeSatisfiable(byte[] model, int numVariables) throws IOException {
+        resetNumber();
+        if (format == Format.NAME_VALUE) {
+            for (int i = 0; i < numVariables; i++, nextNumber()) {
+                if (model[i] != Lits.UNDEFINED) {
+                    ensure(MAX_ENTRY);
+                    int pos = writeNumber(position);
+                    byte[] value = model[i] == Lits.TRUE ? TRUE : FALSE;
+                    System.arraycopy(value, 0, buffer, pos, value.length);
+                    position = pos + value.length;
+                }
+            }
+            return;
+        }
+        writeLine("s SATISFIABLE");
+        ensure(MAX_ENTRY);
+        int lineStart = position;
+        buffer[position++] = 'v';
+        for (int i = 0; i < numVariables; i++, nextNumber()) {
+            if (model[i] == Lits.UNDEFINED) {
+                continue;
+            }
+            if (position > BUFFER_SIZE - MAX_ENTRY) {
+                lineStart -= position;
+                flush();
+            }
+            int pos = position;
+            if (pos - lineStart > MAX_LINE - MAX_LITERAL) {
+                buffer[pos++] = '\n';
+                lineStart = pos;
+                buffer[pos++] = 'v';
+            }
+            buffer[pos++] = ' ';
+            if (model[i] == Lits.FALSE) {
+                buffer[pos++] = '-';
+            }
+            position = writeNumber(pos);
+        }
+        ensure(MAX_ENTRY);
+        buffer[position++] = ' ';
+        buffer[position++] = '0';
+        buffer[position++] = '\n';
+    }
+
+    /**
+     * Record that the problem has no satisfying assignment.
+     */
+    public void writeUnsatisfiable() throws IOException {
+        writeLine(format == Format.COMPETITION ? "s UNSATISFIABLE" : "null");
+    }
+
+    /**
+     * Record that no satisfying assignment was found, as by an incomplete
+     * search, although there may be one.
+     */
+    public void writeUnknown() throws IOException {
+        writeLine(format == Format.COMPETITION ? "s UNKNOWN" : "null");
+    }
+
+    /**
+     * Write out what is buffered and close the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    private void writeLine(String line) throws IOException {
+        ensure(line.length() + 1);
+        for (int i = 0; i < line.length(); i++) {
+            buffer[position++] = (byte) line.charAt(i);
+        }
+        buffer[position++] = '\n';
+    }
+
+    // Start numbering variables from 1
+    private void resetNumber() {
+        digitsStart = digits.length - 1;
+        digits[digitsStart] = '1';
+    }
+
+    // Add 1 to the current variable number
+    private void nextNumber() {
+        int i = digits.length - 1;
+        while (i >= digitsStart && digits[i] == '9') {
+            digits[i] = '0';
+            i -= 1;
+        }
+        if (i < digitsStart) {
+            digitsStart = i;
+            digits[i] = '1';
+        }
+        else {
+            digits[i] += 1;
+        }
+    }
+
+    // Copy the current variable number to the buffer at pos, returning the position after it
+    private int writeNumber(int pos) {
+        for (int i = digitsStart; i < digits.length; i++) {
+            buffer[pos++] = digits[i];
+        }
+        return pos;
+    }
+
+    // Make room for at least n more bytes
+    private void ensure(int n) throws IOException {
+        if (position + n > BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        wrapped.clear();
+        wrapped.limit(position);
+        while (wrapped.hasRemaining()) {
+            channel.write(wrapped);
+        }
+        position = 0;
+    }
+}
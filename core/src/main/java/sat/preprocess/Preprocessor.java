@@ -0,0 +1,697 @@
+package sat.preprocess;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+import sat.core.IntFormula;
+import sat.core.IntVec;
+import sat.core.Lits;
+import sat.io.DratWriter;
+
+/**
+ * Simplifies a formula before it is handed to a search engine.
+ *
+ * The passes run in this order:
+ * - top level unit propagation: the literals of unit clauses are fixed,
+ *   clauses they satisfy are removed and their negations are removed from
+ *   the other clauses, until no unit clause is left;
+ * - duplicate clauses are removed, found by sorting the clauses by a hash
+ *   of their (sorted) literals;
+ * - subsumed clauses are removed: for each clause C, the clauses containing
+ *   the literal of C with fewest occurrences are checked for containing all
+ *   of C;
+ * - bounded variable elimination: a variable is replaced by all the
+ *   resolvents of its positive and negative clauses, as Clause.merge would
+ *   form them, if there are no more of those that are not tautologies than
+ *   clauses removed. Variables are tried cheapest first, by the product of
+ *   their positive and negative occurrences, and a variable is tried again
+ *   once the clauses of a neighbour are replaced. Subsumption is run again
+ *   afterwards over the resolvents;
+ * - pure literals, whose negation occurs nowhere, are made true and the
+ *   clauses containing them removed, which can make further literals pure.
+ *
+ * Occurrence lists (the clauses containing each literal) are built once and
+ * never shrunk: entries for removed clauses are skipped when met. The only
+ * entries that can be stale otherwise are those of literals made false,
+ * which nothing looks up again.
+ *
+ * Fixed and pure literals, and the clauses of eliminated variables, go on a
+ * ReconstructionStack, through which extend turns a model of the simplified
+ * formula into a model of the original one.
+ * Given a DratWriter, every clause shortened by unit propagation is added
+ * to the proof and every clause removed is deleted from it, so that a proof
+ * the engine writes about the simplified formula continues it.
+ *
+ * A Preprocessor is used once: construct it, then call run().
+ */
+public class Preprocessor {
+    // Variables with more occurrence pairs than this are not eliminated
+    private static final long MAX_ELIMINATION_COST = 1024;
+    // Nor are those with a resolvent longer than this
+    private static final int MAX_RESOLVENT_SIZE = 24;
+
+    private final IntFormula formula;
+    private final int numVariables;
+    private final int originalClauses;
+
+    // Clause i is clauses[i][0..sizes[i]-1], unless removed[i]. Resolvents
+    // are added after the clauses of the original formula.
+    private int[][] clauses;
+    private int[] sizes;
+    private boolean[] removed;
+    private int numClauses;
+
+    private final IntVec[] occurs; // occurs[l] lists the clauses l was in
+    private final int[] counts; // counts[l] is the number of clauses l is in
+    private final byte[] values; // Fixed and pure literals are TRUE
+    private final IntVec units = new IntVec(); // Fixed literals, in order; units[unitsHead..] not yet propagated
+    private int unitsHead = 0;
+    private boolean unsatisfiable = false;
+
+    private final int[] marks; // marks[l] == stamp iff l is in the clause being checked for subsumption
+    private int stamp = 0;
+
+    private final ReconstructionStack stack = new ReconstructionStack();
+
+    private boolean eliminate = true;
+    private final boolean[] eliminated;
+    private final boolean[] queued; // queued[v] iff v is waiting to be tried for elimination
+    private final int[] resolvent;
+    private final IntVec touched = new IntVec(); // Variables sharing a clause with the one last eliminated
+
+    private DratWriter proof = null;
+    private int[] dimacs; // DIMACS number of each literal, for the proof
+    private int[] proofClause;
+
+    private int originalLiterals = 0;
+    private int remainingClauses = 0;
+    private int remainingLiterals = 0;
+    private int fixed = 0;
+    private int pure = 0;
+    private int duplicates = 0;
+    private int subsumed = 0;
+    private int eliminatedCount = 0;
+    private int resolvents = 0;
+    private long nanosTaken = 0;
+
+    public Preprocessor(IntFormula formula) {
+        this.formula = formula;
+        numVariables = formula.getNumVariables();
+        numClauses = formula.getNumClauses();
+        originalClauses = numClauses;
+        clauses = new int[numClauses][];
+        sizes = new int[numClauses];
+        removed = new boolean[numClauses];
+        occurs = new IntVec[2 * numVariables];
+        for (int l = 0; l < occurs.length; l++) {
+            occurs[l] = new IntVec(2);
+        }
+        counts = new int[2 * numVariables];
+        values = new byte[numVariables];
+        marks = new int[2 * numVariables];
+        eliminated = new boolean[numVariables];
+        queued = new boolean[numVariables];
+        resolvent = new int[MAX_RESOLVENT_SIZE];
+    }
+
+    /**
+     * Turn bounded variable elimination on or off. It is on by default.
+     * @return this
+     */
+    public Preprocessor setVariableElimination(boolean eliminate) {
+        this.eliminate = eliminate;
+        return this;
+    }
+
+    /**
+     * Record the clauses added and removed in proof.
+     * @return this
+     */
+    public Preprocessor setProof(DratWriter proof) {
+        this.proof = proof;
+        dimacs = new int[2 * numVariables];
+        for (int lit = 0; lit < dimacs.length; lit++) {
+            dimacs[lit] = formula.toDimacs(lit);
+        }
+        proofClause = new int[numVariables];
+        return this;
+    }
+
+    /**
+     * Simplify the formula.
+     * @return a formula over the same variables that is satisfiable iff the
+     *         original one is, or null if the original formula was found to
+     *         be unsatisfiable
+     */
+    public IntFormula run() {
+        long started = System.nanoTime();
+        int[] literals = formula.getLiterals();
+        for (int c = 0; c < originalClauses; c++) {
+            clauses[c] = Arrays.copyOfRange(literals, formula.clauseStart(c), formula.clauseEnd(c));
+            sizes[c] = clauses[c].length;
+            originalLiterals += sizes[c];
+            for (int lit : clauses[c]) {
+                occurs[lit].push(c);
+                counts[lit] += 1;
+            }
+            if (sizes[c] == 0) {
+                unsatisfiable = true;
+            }
+            else if (sizes[c] == 1) {
+                fix(clauses[c][0]);
+            }
+        }
+
+        propagate();
+        if (!unsatisfiable) {
+            removeDuplicates();
+            subsume();
+            if (eliminate && eliminateVariables() > 0 && !unsatisfiable) {
+                subsume();
+            }
+            if (!unsatisfiable) {
+                eliminatePure();
+            }
+        }
+        nanosTaken = System.nanoTime() - started;
+        if (unsatisfiable) {
+            if (proof != null) {
+                proof.addEmpty();
+            }
+            return null;
+        }
+
+        IntFormula.Builder builder = formula.newBuilder();
+        for (int c = 0; c < numClauses; c++) {
+            if (!removed[c]) {
+                builder.addClause(clauses[c], sizes[c]);
+                remainingClauses += 1;
+                remainingLiterals += sizes[c];
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Turn a model of the formula returned by run() into a model of the
+     * original formula.
+     * @return a new model with every variable assigned
+     */
+    public byte[] extend(byte[] model) {
+        return stack.extend(model);
+    }
+
+    /**
+     * @return the formula being simplified
+     */
+    public IntFormula getFormula() {
+        return formula;
+    }
+
+    // Make lit true at the top level, noting a conflict if it is false
+    private void fix(int lit) {
+        byte value = Lits.value(values, lit);
+        if (value == Lits.FALSE) {
+            unsatisfiable = true;
+        }
+        else if (value == Lits.UNDEFINED) {
+            values[Lits.var(lit)] = Lits.isNegative(lit) ? Lits.FALSE : Lits.TRUE;
+            units.push(lit);
+            stack.pushUnit(lit);
+            fixed += 1;
+        }
+    }
+
+    private void propagate() {
+        while (unitsHead < units.size() && !unsatisfiable) {
+            int lit = units.get(unitsHead++);
+            IntVec satisfied = occurs[lit];
+            for (int i = 0; i < satisfied.size(); i++) {
+                int c = satisfied.get(i);
+                if (!removed[c]) {
+                    remove(c);
+                }
+            }
+            int falseLit = Lits.negate(lit);
+            IntVec shortened = occurs[falseLit];
+            for (int i = 0; i < shortened.size() && !unsatisfiable; i++) {
+                int c = shortened.get(i);
+                if (!removed[c]) {
+                    strengthen(c, falseLit);
+                }
+            }
+            satisfied.clear();
+            shortened.clear();
+        }
+    }
+
+    // Remove the false literal lit from clause c
+    private void strengthen(int c, int lit) {
+        int[] clause = clauses[c];
+        int size = sizes[c];
+        int i = 0;
+        while (i < size && clause[i] != lit) {
+            i += 1;
+        }
+        if (i == size) {
+            return;
+        }
+        if (proof != null) {
+            writeClause(clause, size, i);
+            deleteClause(clause, size);
+        }
+        clause[i] = clause[size - 1];
+        clause[size - 1] = lit;
+        sizes[c] = size - 1;
+        counts[lit] -= 1;
+        if (size - 1 == 0) {
+            unsatisfiable = true;
+        }
+        else if (size - 1 == 1) {
+            fix(clause[0]);
+        }
+    }
+
+    private void remove(int c) {
+        removed[c] = true;
+        for (int j = 0; j < sizes[c]; j++) {
+            counts[clauses[c][j]] -= 1;
+        }
+        if (proof != null && sizes[c] > 1) {
+            // Unit clauses stay: drat-trim ignores their deletion
+            deleteClause(clauses[c], sizes[c]);
+        }
+    }
+
+    /*
+     * Sort the literals of every clause, then the clauses by a hash of their
+     * literals, so that equal clauses end up next to each other.
+     */
+    private void removeDuplicates() {
+        long[] keys = new long[numClauses];
+        int numKeys = 0;
+        for (int c = 0; c < numClauses; c++) {
+            if (removed[c]) {
+                continue;
+            }
+            Arrays.sort(clauses[c], 0, sizes[c]);
+            int hash = sizes[c];
+            for (int j = 0; j < sizes[c]; j++) {
+                hash = 31 * hash + clauses[c][j];
+            }
+            keys[numKeys++] = ((long) hash << 32) | c;
+        }
+        Arrays.sort(keys, 0, numKeys);
+        for (int start = 0; start < numKeys; ) {
+            int end = start + 1;
+            while (end < numKeys && (keys[end] >>> 32) == (keys[start] >>> 32)) {
+                end += 1;
+            }
+            // Clauses with equal hashes: keep the first of each set of equal ones
+            for (int i = start; i < end; i++) {
+                int c = (int) keys[i];
+                for (int j = start; j < i && !removed[c]; j++) {
+                    int d = (int) keys[j];
+                    if (!removed[d] && Arrays.equals(clauses[c], 0, sizes[c], clauses[d], 0, sizes[d])) {
+                        remove(c);
+                        duplicates += 1;
+                    }
+                }
+            }
+            start = end;
+        }
+    }
+
+    /*
+     * Check each clause, shortest first, against the clauses containing its
+     * literal with fewest occurrences: any of them that contains every
+     * literal of the clause is subsumed by it.
+     */
+    private void subsume() {
+        long[] bySize = new long[numClauses];
+        int n = 0;
+        for (int c = 0; c < numClauses; c++) {
+            if (!removed[c]) {
+                bySize[n++] = ((long) sizes[c] << 32) | c;
+            }
+        }
+        Arrays.sort(bySize, 0, n);
+        for (int i = 0; i < n; i++) {
+            int c = (int) bySize[i];
+            if (removed[c]) {
+                continue;
+            }
+            int[] clause = clauses[c];
+            int size = sizes[c];
+            stamp += 1;
+            int rarest = clause[0];
+            for (int j = 0; j < size; j++) {
+                marks[clause[j]] = stamp;
+                if (counts[clause[j]] < counts[rarest]) {
+                    rarest = clause[j];
+                }
+            }
+            IntVec candidates = occurs[rarest];
+            for (int k = 0; k < candidates.size(); k++) {
+                int d = candidates.get(k);
+                if (d == c || removed[d] || sizes[d] < size) {
+                    continue;
+                }
+                int common = 0;
+                for (int j = 0; j < sizes[d]; j++) {
+                    if (marks[clauses[d][j]] == stamp) {
+                        common += 1;
+                    }
+                }
+                if (common == size) {
+                    remove(d);
+                    subsumed += 1;
+                }
+            }
+        }
+    }
+
+    /*
+     * Make each pure literal true and remove the clauses containing it. This
+     * can leave the negation of some other literal in no clause, making that
+     * literal pure in turn.
+     */
+    private void eliminatePure() {
+        IntVec queue = new IntVec();
+        for (int lit = 0; lit < 2 * numVariables; lit++) {
+            if (counts[lit] > 0 && counts[Lits.negate(lit)] == 0) {
+                queue.push(lit);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int lit = queue.pop();
+            if (values[Lits.var(lit)] != Lits.UNDEFINED || counts[lit] == 0) {
+                continue;
+            }
+            values[Lits.var(lit)] = Lits.isNegative(lit) ? Lits.FALSE : Lits.TRUE;
+            stack.pushUnit(lit);
+            pure += 1;
+            IntVec ws = occurs[lit];
+            for (int i = 0; i < ws.size(); i++) {
+                int c = ws.get(i);
+                if (removed[c]) {
+                    continue;
+                }
+                remove(c);
+                for (int j = 0; j < sizes[c]; j++) {
+                    int other = clauses[c][j];
+                    if (counts[other] == 0 && counts[Lits.negate(other)] > 0) {
+                        queue.push(Lits.negate(other));
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Try variables for elimination, cheapest first.
+     * Returns the number of variables eliminated.
+     */
+    private int eliminateVariables() {
+        PriorityQueue<Long> queue = new PriorityQueue<Long>();
+        for (int v = 0; v < numVariables; v++) {
+            if (values[v] == Lits.UNDEFINED) {
+                queue.add((cost(v) << 32) | v);
+                queued[v] = true;
+            }
+        }
+        int before = eliminatedCount;
+        while (!queue.isEmpty() && !unsatisfiable) {
+            long key = queue.poll();
+            int v = (int) key;
+            queued[v] = false;
+            if (values[v] != Lits.UNDEFINED || eliminated[v]) {
+                continue;
+            }
+            long cost = cost(v);
+            if (cost != key >>> 32) {
+                // Its clauses have changed since it was queued
+                queue.add((cost << 32) | v);
+                queued[v] = true;
+            }
+            else if (cost <= MAX_ELIMINATION_COST && tryEliminate(v)) {
+                for (int i = 0; i < touched.size(); i++) {
+                    int u = touched.get(i);
+                    if (!queued[u] && !eliminated[u] && values[u] == Lits.UNDEFINED) {
+                        queue.add((cost(u) << 32) | u);
+                        queued[u] = true;
+                    }
+                }
+            }
+        }
+        return eliminatedCount - before;
+    }
+
+    // Product of the occurrences of v and its negation, capped to fit in 31 bits
+    private long cost(int v) {
+        long cost = (long) counts[Lits.make(v, false)] * counts[Lits.make(v, true)];
+        return Math.min(cost, Integer.MAX_VALUE);
+    }
+
+    /*
+     * Eliminate v if its clauses have no more resolvents that are not
+     * tautologies than there are of them. On success, touched holds the
+     * variables that shared a clause with v.
+     */
+    private boolean tryEliminate(int v) {
+        int pos = Lits.make(v, false);
+        int neg = Lits.negate(pos);
+        int limit = counts[pos] + counts[neg];
+        if (limit == 0) {
+            return false;
+        }
+        IntVec posClauses = live(occurs[pos]);
+        IntVec negClauses = live(occurs[neg]);
+
+        // Count the resolvents first, giving up as soon as there are too many
+        int count = 0;
+        for (int i = 0; i < posClauses.size(); i++) {
+            for (int j = 0; j < negClauses.size(); j++) {
+                int size = resolve(posClauses.get(i), negClauses.get(j), pos);
+                if (size > MAX_RESOLVENT_SIZE) {
+                    return false;
+                }
+                if (size >= 0 && ++count > limit) {
+                    return false;
+                }
+            }
+        }
+
+        /*
+         * Only the clauses on the side with fewer of them are kept for
+         * reconstruction, under the unit clause of the other literal. The
+         * other literal is made true first, and v is flipped only if a kept
+         * clause is then false; every clause on the other side is then true,
+         * as otherwise some resolvent would be false.
+         */
+        IntVec kept = posClauses.size() <= negClauses.size() ? posClauses : negClauses;
+        int witness = kept == posClauses ? pos : neg;
+        for (int i = 0; i < kept.size(); i++) {
+            int c = kept.get(i);
+            stack.push(witness, clauses[c], sizes[c]);
+        }
+        stack.pushUnit(Lits.negate(witness));
+
+        // Units among the resolvents go on the stack after the clauses of v,
+        // so that they are set before the clauses are checked
+        for (int i = 0; i < posClauses.size(); i++) {
+            for (int j = 0; j < negClauses.size() && !unsatisfiable; j++) {
+                int size = resolve(posClauses.get(i), negClauses.get(j), pos);
+                if (size >= 0) {
+                    addResolvent(size);
+                }
+            }
+        }
+
+        touched.clear();
+        removeAndTouch(posClauses);
+        removeAndTouch(negClauses);
+        eliminated[v] = true;
+        eliminatedCount += 1;
+        propagate();
+        return true;
+    }
+
+    // The clauses in occurrences that have not been removed
+    private IntVec live(IntVec occurrences) {
+        IntVec result = new IntVec(occurrences.size());
+        for (int i = 0; i < occurrences.size(); i++) {
+            if (!removed[occurrences.get(i)]) {
+                result.push(occurrences.get(i));
+            }
+        }
+        return result;
+    }
+
+    private void removeAndTouch(IntVec cs) {
+        for (int i = 0; i < cs.size(); i++) {
+            int c = cs.get(i);
+            for (int j = 0; j < sizes[c]; j++) {
+                touched.push(Lits.var(clauses[c][j]));
+            }
+            remove(c);
+        }
+    }
+
+    /*
+     * Resolve clauses c and d on pos, c containing pos and d its negation,
+     * into resolvent. Returns the size of the resolvent, -1 if it is a
+     * tautology or MAX_RESOLVENT_SIZE + 1 if it does not fit.
+     */
+    private int resolve(int c, int d, int pos) {
+        stamp += 1;
+        int size = 0;
+        for (int j = 0; j < sizes[c]; j++) {
+            int lit = clauses[c][j];
+            if (lit != pos) {
+                if (size == MAX_RESOLVENT_SIZE) {
+                    return size + 1;
+                }
+                marks[lit] = stamp;
+                resolvent[size++] = lit;
+            }
+        }
+        int neg = Lits.negate(pos);
+        for (int j = 0; j < sizes[d]; j++) {
+            int lit = clauses[d][j];
+            if (lit == neg || marks[lit] == stamp) {
+                continue;
+            }
+            if (marks[Lits.negate(lit)] == stamp) {
+                return -1;
+            }
+            if (size == MAX_RESOLVENT_SIZE) {
+                return size + 1;
+            }
+            resolvent[size++] = lit;
+        }
+        return size;
+    }
+
+    // Add resolvent[0..size-1] as a new clause
+    private void addResolvent(int size) {
+        if (numClauses == clauses.length) {
+            int capacity = Math.max(16, 2 * numClauses);
+            clauses = Arrays.copyOf(clauses, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            removed = Arrays.copyOf(removed, capacity);
+        }
+        int c = numClauses++;
+        clauses[c] = Arrays.copyOf(resolvent, size);
+        sizes[c] = size;
+        for (int j = 0; j < size; j++) {
+            occurs[resolvent[j]].push(c);
+            counts[resolvent[j]] += 1;
+        }
+        resolvents += 1;
+        if (proof != null) {
+            writeClause(resolvent, size, -1);
+        }
+        if (size == 0) {
+            unsatisfiable = true;
+        }
+        else if (size == 1) {
+            fix(resolvent[0]);
+        }
+    }
+
+    // Add clause[0..size-1] without clause[skip] to the proof
+    private void writeClause(int[] clause, int size, int skip) {
+        int n = 0;
+        for (int j = 0; j < size; j++) {
+            if (j != skip) {
+                proofClause[n++] = dimacs[clause[j]];
+            }
+        }
+        proof.add(proofClause, n);
+    }
+
+    private void deleteClause(int[] clause, int size) {
+        for (int j = 0; j < size; j++) {
+            proofClause[j] = dimacs[clause[j]];
+        }
+        proof.delete(proofClause, size);
+    }
+
+    /**
+     * @return number of clauses in the original formula
+     */
+    public int getOriginalClauses() {
+        return originalClauses;
+    }
+
+    /**
+     * @return number of literals in the clauses of the original formula
+     */
+    public int getOriginalLiterals() {
+        return originalLiterals;
+    }
+
+    /**
+     * @return number of clauses in the simplified formula
+     */
+    public int getRemainingClauses() {
+        return remainingClauses;
+    }
+
+    /**
+     * @return number of literals in the clauses of the simplified formula
+     */
+    public int getRemainingLiterals() {
+        return remainingLiterals;
+    }
+
+    /**
+     * @return number of variables fixed by unit propagation
+     */
+    public int getFixed() {
+        return fixed;
+    }
+
+    /**
+     * @return number of pure literals eliminated
+     */
+    public int getPure() {
+        return pure;
+    }
+
+    /**
+     * @return number of duplicate clauses removed
+     */
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return number of subsumed clauses removed
+     */
+    public int getSubsumed() {
+        return subsumed;
+    }
+
+    /**
+     * @return number of variables eliminated
+     */
+    public int getEliminated() {
+        return eliminatedCount;
+    }
+
+    /**
+     * @return number of resolvents added by variable elimination
+     */
+    public int getResolvents() {
+        return resolvents;
+    }
+
+    /**
+     * @return time taken by run(), in nanoseconds
+     */
+    public long getNanosTaken() {
+        return nanosTaken;
+    }
+}
@@ -0,0 +1,82 @@
+package sat.preprocess;
+
+import java.util.Arrays;
+
+import sat.core.IntVec;
+import sat.core.Lits;
+
+/**
+ * The clauses a preprocessor removed without them following from what is
+ * left, each with a witness literal: making the witness true satisfies the
+ * clause. A model of the simplified formula is turned into a model of the
+ * original one by going through the clauses from the last one removed to
+ * the first, and making the witness of each clause that is not yet
+ * satisfied true. This works as long as the variable of a witness does not
+ * occur in the clauses left after its clause is removed.
+ *
+ * A variable fixed to a value is recorded as the unit clause of its
+ * literal, which is its own witness.
+ */
+public class ReconstructionStack {
+    private final IntVec witnesses = new IntVec();
+    private final IntVec literals = new IntVec();
+    private final IntVec starts = new IntVec();
+
+    public ReconstructionStack() {
+        starts.push(0);
+    }
+
+    /**
+     * Record that clause[0..size-1] was removed, with witness as the literal
+     * to make true if a model does not satisfy it.
+     * Requires: witness is in the clause
+     */
+    public void push(int witness, int[] clause, int size) {
+        witnesses.push(witness);
+        for (int i = 0; i < size; i++) {
+            literals.push(clause[i]);
+        }
+        starts.push(literals.size());
+    }
+
+    /**
+     * Record that lit was made true.
+     */
+    public void pushUnit(int lit) {
+        witnesses.push(lit);
+        literals.push(lit);
+        starts.push(literals.size());
+    }
+
+    /**
+     * @return number of clauses recorded
+     */
+    public int size() {
+        return witnesses.size();
+    }
+
+    /**
+     * Extend a model of the simplified formula to the original formula.
+     * Variables model leaves UNDEFINED are first set to FALSE.
+     * @return a new model with every variable assigned
+     */
+    public byte[] extend(byte[] model) {
+        byte[] result = Arrays.copyOf(model, model.length);
+        for (int v = 0; v < result.length; v++) {
+            if (result[v] == Lits.UNDEFINED) {
+                result[v] = Lits.FALSE;
+            }
+        }
+        for (int i = witnesses.size() - 1; i >= 0; i--) {
+            boolean satisfied = false;
+            for (int j = starts.get(i); j < starts.get(i + 1) && !satisfied; j++) {
+                satisfied = Lits.value(result, literals.get(j)) == Lits.TRUE;
+            }
+            if (!satisfied) {
+                int witness = witnesses.get(i);
+                result[Lits.var(witness)] = Lits.isNegative(witness) ? Lits.FALSE : Lits.TRUE;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+package immutable;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+public class ImHashMapTest {
+
+    // A key whose hash is chosen by the test, to force collisions
+    private static class Key {
+        final String name;
+        final int hash;
+
+        Key(String name, int hash) {
+            this.name = name;
+            this.hash = hash;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).name.equals(name);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Random random = new Random(1);
+        HashMap<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        ImMap<Integer, Integer> map = new ImHashMap<Integer, Integer>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(5000);
+            expected.put(key, i);
+            map = map.put(key, i);
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 5000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void testPersistence() {
+        ImMap<String, Integer> empty = new ImHashMap<String, Integer>();
+        ImMap<String, Integer> one = empty.put("a", 1);
+        ImMap<String, Integer> two = one.put("a", 2);
+        assertTrue(empty.isEmpty());
+        assertEquals(Integer.valueOf(1), one.get("a"));
+        assertEquals(Integer.valueOf(2), two.get("a"));
+        assertEquals(1, two.size());
+    }
+
+    @Test
+    public void testCollisions() {
+        ImMap<Key, Integer> map = new ImHashMap<Key, Integer>();
+        for (int i = 0; i < 10; i++) {
+            // Keys k0 and k1 share a full hash, as do k2 and k3, and so on
+            map = map.put(new Key("k" + i, (i / 2) << 20), i);
+        }
+        map = map.put(new Key("k3", 1 << 20), 33);
+        assertEquals(10, map.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i == 3 ? 33 : i), map.get(new Key("k" + i, (i / 2) << 20)));
+        }
+        assertNull(map.get(new Key("k10", 0)));
+        assertFalse(map.containsKey(new Key("k11", 1 << 20)));
+    }
+}
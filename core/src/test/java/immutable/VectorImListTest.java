@@ -0,0 +1,172 @@
+package immutable;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class VectorImListTest {
+
+    // Check l against expected, which lists the elements front to back
+    private static void assertElements(ArrayList<Integer> expected, ImList<Integer> l) {
+        assertEquals(expected.size(), l.size());
+        int i = 0;
+        for (Integer e : l) {
+            assertEquals(expected.get(i++), e);
+        }
+        if (!expected.isEmpty()) {
+            assertEquals(expected.get(0), l.first());
+        }
+    }
+
+    @Test
+    public void testAddRestAcrossLevels() {
+        // 32^3 + 1 elements needs a tree of three levels plus the tail
+        ImList<Integer> l = new VectorImList<Integer>();
+        ArrayList<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 32769; i++) {
+            l = l.add(i);
+            expected.add(0, i);
+        }
+        assertElements(expected, l);
+        for (int i = 0; i < 32769; i++) {
+            assertEquals(expected.get(0), l.first());
+            l = l.rest();
+            expected.remove(0);
+            if (i % 1000 == 0) {
+                assertElements(expected, l);
+            }
+        }
+        assertTrue(l.isEmpty());
+        assertEquals(new EmptyImList<Integer>(), l);
+        assertEquals(l, new EmptyImList<Integer>());
+    }
+
+    @Test
+    public void testRemove() {
+        Random random = new Random(1);
+        ImList<Integer> l = new VectorImList<Integer>();
+        ArrayList<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 3000; i++) {
+            int e = random.nextInt(500);
+            l = l.add(e);
+            expected.add(0, e);
+        }
+        ImList<Integer> original = l;
+        for (int i = 0; i < 600; i++) {
+            Integer e = random.nextInt(600);
+            assertEquals(expected.contains(e), l.contains(e));
+            l = l.remove(e);
+            expected.remove(e);
+        }
+        assertElements(expected, l);
+        assertEquals(3000, original.size());
+    }
+
+    @Test
+    public void testRemoveFromMiddleOfMillion() {
+        ImList<Integer> l = new VectorImList<Integer>();
+        for (int i = 0; i < 1000000; i++) {
+            l = l.add(i);
+        }
+        ImList<Integer> original = l;
+        // Elements from the middle, in an order that empties some leaves and thins others
+        Random random = new Random(14);
+        ArrayList<Integer> removed = new ArrayList<Integer>();
+        for (int i = 0; i < 200; i++) {
+            Integer e = 500000 + (i < 64 ? i : random.nextInt(2000));
+            if (!removed.contains(e)) {
+                removed.add(e);
+                l = l.remove(e);
+            }
+        }
+        assertEquals(1000000 - removed.size(), l.size());
+        VectorImList<Integer> v = (VectorImList<Integer>) l;
+        int index = 0;
+        for (int e = 999999; e >= 0; e--) {
+            if (removed.contains(e)) {
+                assertFalse(l.contains(e));
+                continue;
+            }
+            if (e % 997 == 0 || Math.abs(e - 501000) < 1100) {
+                assertEquals(Integer.valueOf(e), v.get(index));
+            }
+            index += 1;
+        }
+        // The list keeps growing and shrinking at the front past the removed elements
+        for (int i = 0; i < 600000; i++) {
+            l = l.rest();
+        }
+        for (int i = 0; i < 100; i++) {
+            l = l.add(-i);
+        }
+        assertEquals(Integer.valueOf(-99), l.first());
+        assertEquals(400100 - removed.size(), l.size());
+        assertEquals(1000000, original.size());
+        assertEquals(Integer.valueOf(500000), ((VectorImList<Integer>) original).get(499999));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        // add, rest and remove interleaved, against an ArrayList
+        Random random = new Random(7);
+        ImList<Integer> l = new VectorImList<Integer>();
+        ArrayList<Integer> expected = new ArrayList<Integer>();
+        for (int step = 0; step < 20000; step++) {
+            int op = random.nextInt(10);
+            if (op < 6 || expected.isEmpty()) {
+                int e = random.nextInt(5000);
+                l = l.add(e);
+                expected.add(0, e);
+            }
+            else if (op < 7) {
+                l = l.rest();
+                expected.remove(0);
+            }
+            else {
+                Integer e = expected.get(random.nextInt(expected.size()));
+                l = l.remove(e);
+                expected.remove(e);
+            }
+            if (step % 500 == 0) {
+                assertElements(expected, l);
+                for (int i = 0; i < expected.size(); i += 37) {
+                    assertEquals(expected.get(i), ((VectorImList<Integer>) l).get(i));
+                }
+            }
+        }
+        assertElements(expected, l);
+    }
+
+    @Test
+    public void testEqualsOtherImList() {
+        ImList<Integer> vector = new VectorImList<Integer>();
+        ImList<Integer> linked = new EmptyImList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            vector = vector.add(i);
+            linked = linked.add(i);
+        }
+        assertEquals(linked, vector);
+        assertEquals(vector, linked);
+        assertEquals(linked.hashCode(), vector.hashCode());
+        assertEquals(linked.toString(), vector.toString());
+        assertFalse(vector.equals(vector.rest()));
+        assertEquals(Integer.valueOf(99), ((VectorImList<Integer>) vector).get(0));
+        assertEquals(Integer.valueOf(0), ((VectorImList<Integer>) vector).get(99));
+    }
+
+    @Test
+    public void testMillionElements() {
+        ImList<Integer> a = new VectorImList<Integer>();
+        ImList<Integer> b = new VectorImList<Integer>();
+        for (int i = 0; i < 1000000; i++) {
+            a = a.add(i);
+            b = b.add(i);
+        }
+        assertEquals(a, b);
+        assertFalse(a.contains(-1));
+        assertEquals(999999, a.remove(500000).size());
+    }
+}
@@ -0,0 +1,85 @@
+package sat;
+
+import static org.junit.Assert.*;
+import static sat.TestFormulas.makeCl;
+import static sat.TestFormulas.makeFm;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import sat.env.*;
+import sat.formula.*;
+
+public class CdclSolverTest {
+    Literal a = PosLiteral.make("a");
+    Literal b = PosLiteral.make("b");
+    Literal c = PosLiteral.make("c");
+    Literal na = a.getNegation();
+    Literal nb = b.getNegation();
+    Literal nc = c.getNegation();
+
+    @Test
+    public void testSatisfiable() {
+        // (a v b v c) (~a v ~b) (~b v ~c) (~a v ~c) (~a v b v ~c)
+        Formula f = makeFm(makeCl(a, b, c), makeCl(na, nb), makeCl(nb, nc),
+                makeCl(na, nc), makeCl(na, b, nc));
+        HashMap<Variable, Bool> e = SATSolver.solve(f, 3, SATSolver.Engine.CDCL);
+        assertNotNull(e);
+        assertNull(new ModelVerifier(f).firstViolated(e));
+    }
+
+    @Test
+    public void testUnsatisfiable() {
+        // Every assignment of a, b, c falsifies one of the eight clauses
+        Formula f = new Formula();
+        Literal[][] signs = {{a, na}, {b, nb}, {c, nc}};
+        for (int i = 0; i < 8; i++) {
+            f = f.addClause(makeCl(signs[0][i & 1], signs[1][(i >> 1) & 1], signs[2][(i >> 2) & 1]));
+        }
+        assertNull(SATSolver.solve(f, 3, SATSolver.Engine.CDCL));
+        assertNull(SATSolver.solve(f, 3, SATSolver.Engine.DPLL));
+    }
+
+    @Test
+    public void testPigeonhole() {
+        // Three pigeons do not fit in two holes
+        Literal[][] p = new Literal[3][2];
+        Formula f = new Formula();
+        for (int i = 0; i < 3; i++) {
+            for (int h = 0; h < 2; h++) {
+                p[i][h] = PosLiteral.make("p" + i + "_" + h);
+            }
+            f = f.addClause(makeCl(p[i][0], p[i][1]));
+        }
+        for (int h = 0; h < 2; h++) {
+            for (int i = 0; i < 3; i++) {
+                for (int j = i + 1; j < 3; j++) {
+                    f = f.addClause(makeCl(p[i][h].getNegation(), p[j][h].getNegation()));
+                }
+            }
+        }
+        f = f.addClause(makeCl(p[0][0], p[1][1], p[2][0]));
+        assertNull(SATSolver.solve(f, 3, SATSolver.Engine.CDCL));
+    }
+
+    @Test
+    public void testRestartsAndReduction() {
+        // Random 3-SAT near the threshold, with frequent restarts and reductions
+        Random random = new Random(17);
+        for (CdclSettings.Restarts restarts : CdclSettings.Restarts.values()) {
+            CdclSettings settings = new CdclSettings().setRestarts(restarts).setRestartInterval(5)
+                    .setReduceInterval(20).setReduceIncrement(5);
+            for (int round = 0; round < 10; round++) {
+                Formula f = TestFormulas.random3Sat(random, 40, 170);
+                HashMap<Variable, Bool> expected = SATSolver.solve(f, 3, SATSolver.Engine.DPLL);
+                HashMap<Variable, Bool> e = SATSolver.solve(f, 3, SATSolver.Engine.CDCL, null, settings);
+                assertEquals(expected == null, e == null);
+                if (e != null) {
+                    assertNull(new ModelVerifier(f).firstViolated(e));
+                }
+            }
+        }
+    }
+}
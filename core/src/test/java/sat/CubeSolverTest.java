@@ -0,0 +1,54 @@
+package sat;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import sat.env.*;
+import sat.formula.*;
+
+public class CubeSolverTest {
+    @Test
+    public void testSameVerdictAsDpll() {
+        // Random 3-SAT around the threshold, so that both verdicts come up
+        Random random = new Random(7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        int satisfiable = 0;
+        for (int round = 0; round < 40; round++) {
+            Formula f = TestFormulas.random3Sat(random, 20, 85);
+            HashMap<Variable, Bool> expected = SATSolver.solve(f, 3, SATSolver.Engine.DPLL);
+            CubeSolver solver = new CubeSolver(f).setDepth(3);
+            HashMap<Variable, Bool> e = solver.solve(pool);
+            assertEquals(expected == null, e == null);
+            if (e != null) {
+                assertNull(new ModelVerifier(f).firstViolated(e));
+                satisfiable += 1;
+            }
+            else {
+                assertTrue(solver.getCubes() > 0);
+            }
+        }
+        pool.shutdown();
+        assertTrue(satisfiable > 0 && satisfiable < 40);
+    }
+
+    @Test
+    public void testDepthZero() {
+        Formula f = TestFormulas.random3Sat(new Random(3), 15, 40);
+        HashMap<Variable, Bool> e = new CubeSolver(f).setDepth(0).solve();
+        assertNotNull(e);
+        assertNull(new ModelVerifier(f).firstViolated(e));
+    }
+
+    @Test
+    public void testEngine() {
+        Formula f = TestFormulas.random3Sat(new Random(5), 30, 100);
+        HashMap<Variable, Bool> expected = SATSolver.solve(f, 3, SATSolver.Engine.CDCL);
+        HashMap<Variable, Bool> e = SATSolver.solve(f, 3, SATSolver.Engine.CUBE);
+        assertEquals(expected == null, e == null);
+    }
+}
@@ -0,0 +1,203 @@
+package sat;
+
+import static org.junit.Assert.*;
+import static sat.TestFormulas.makeCl;
+import static sat.TestFormulas.makeFm;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import sat.env.*;
+import sat.formula.*;
+
+public class IncrementalSolverTest {
+    Literal a = PosLiteral.make("a");
+    Literal b = PosLiteral.make("b");
+    Literal c = PosLiteral.make("c");
+    Literal d = PosLiteral.make("d");
+    Literal na = a.getNegation();
+    Literal nb = b.getNegation();
+    Literal nc = c.getNegation();
+    Literal nd = d.getNegation();
+
+    @Test
+    public void test2SatAssumptions() {
+        // (a v b) (~a v c) (~c v d)
+        Formula f = makeFm(makeCl(a, b), makeCl(na, c), makeCl(nc, d));
+        IncrementalSolver solver = new IncrementalSolver(f);
+        assertTrue(solver.is2Sat());
+
+        HashMap<Variable, Bool> e = solver.solve(nb);
+        assertNotNull(e);
+        assertNull(new ModelVerifier(f).firstViolated(e));
+        assertEquals(Bool.TRUE, e.get(d.getVariable()));
+
+        // ~b forces a, c and d
+        assertNull(solver.solve(nb, c, nd));
+        List<Literal> failed = solver.getFailedAssumptions();
+        assertEquals(2, failed.size());
+        assertTrue(failed.contains(nb));
+        assertTrue(failed.contains(nd));
+
+        // Assumptions do not stay
+        assertNotNull(solver.solve(nd));
+        assertNotNull(solver.solve());
+        assertTrue(solver.getFailedAssumptions().isEmpty());
+    }
+
+    @Test
+    public void test2SatAddClause() {
+        Formula f = makeFm(makeCl(a, b), makeCl(na, c), makeCl(nc, nd));
+        IncrementalSolver solver = new IncrementalSolver(f);
+        solver.addClause(makeCl(nc));
+        HashMap<Variable, Bool> e = solver.solve();
+        assertEquals(Bool.FALSE, e.get(a.getVariable()));
+        assertEquals(Bool.TRUE, e.get(b.getVariable()));
+
+        assertNull(solver.solve(nb));
+        assertEquals(1, solver.getFailedAssumptions().size());
+
+        solver.addClause(makeCl(nb, d));
+        assertEquals(Bool.TRUE, solver.solve().get(d.getVariable()));
+        solver.addClause(makeCl(nd));
+        assertNull(solver.solve());
+        assertTrue(solver.getFailedAssumptions().isEmpty());
+        assertTrue(solver.is2Sat());
+    }
+
+    @Test
+    public void testSwitchToCdcl() {
+        Formula f = makeFm(makeCl(a, b), makeCl(na, c), makeCl(nc, nd));
+        IncrementalSolver solver = new IncrementalSolver(f);
+        solver.addClause(makeCl(nc));
+        solver.addClause(makeCl(na, nb, d));
+        assertFalse(solver.is2Sat());
+
+        // (~c) was kept: a is false, so b, and then d
+        HashMap<Variable, Bool> e = solver.solve();
+        assertEquals(Bool.FALSE, e.get(a.getVariable()));
+        assertEquals(Bool.TRUE, e.get(b.getVariable()));
+        assertNull(solver.solve(a));
+        assertEquals(1, solver.getFailedAssumptions().size());
+        assertEquals(a, solver.getFailedAssumptions().get(0));
+    }
+
+    @Test
+    public void testCdclFailedAssumptions() {
+        // (~a v ~b v c) (~c v d) (~d v ~a): a rules out d, c and then b
+        Formula f = makeFm(makeCl(na, nb, c), makeCl(nc, d), makeCl(nd, na), makeCl(a, b, c, d));
+        IncrementalSolver solver = new IncrementalSolver(f);
+        assertFalse(solver.is2Sat());
+        assertNotNull(solver.solve(nc, a));
+
+        assertNull(solver.solve(b, a));
+        List<Literal> failed = solver.getFailedAssumptions();
+        assertEquals(2, failed.size());
+        assertTrue(failed.contains(a) && failed.contains(b));
+
+        // b plays no part once c is assumed
+        assertNull(solver.solve(c, b, a));
+        failed = solver.getFailedAssumptions();
+        assertEquals(2, failed.size());
+        assertTrue(failed.contains(a) && failed.contains(c));
+
+        assertNotNull(solver.solve(a));
+    }
+
+    @Test
+    public void testNewVariables() {
+        // c and d are not in the formula
+        IncrementalSolver solver = new IncrementalSolver(makeFm(makeCl(a, b)));
+        HashMap<Variable, Bool> e = solver.solve(c);
+        assertEquals(Bool.TRUE, e.get(c.getVariable()));
+
+        solver.addClause(makeCl(nc, na));
+        solver.addClause(makeCl(nc, nb));
+        assertTrue(solver.is2Sat());
+        assertNull(solver.solve(c));
+        assertEquals(Arrays.asList(c), solver.getFailedAssumptions());
+        e = solver.solve(nc);
+        assertEquals(Bool.FALSE, e.get(c.getVariable()));
+
+        // d comes in with the first wider clause
+        solver.addClause(makeCl(c, d, na));
+        solver.addClause(makeCl(nd));
+        assertFalse(solver.is2Sat());
+        // a would make c true through (c v d v ~a), but (~c v ~a) rules that out
+        assertNull(solver.solve(a));
+        assertEquals(Arrays.asList(a), solver.getFailedAssumptions());
+        e = solver.solve(b);
+        assertEquals(Bool.FALSE, e.get(a.getVariable()));
+        assertEquals(Bool.FALSE, e.get(d.getVariable()));
+    }
+
+    @Test
+    public void testRandomQueries() {
+        // Many queries with random assumptions on random 2-SAT and 3-SAT formulas, checked against solving from scratch
+        Random random = new Random(29);
+        for (int width = 2; width <= 3; width++) {
+            for (int round = 0; round < 10; round++) {
+                int numVariables = width == 2 ? 30 : 25;
+                Literal[] lits = new Literal[numVariables];
+                for (int v = 0; v < numVariables; v++) {
+                    lits[v] = PosLiteral.make("incremental" + width + "_" + v);
+                }
+                Formula f = new Formula();
+                int numClauses = width == 2 ? 20 : 80;
+                for (int i = 0; i < numClauses; i++) {
+                    f = f.addClause(randomClause(random, lits, width));
+                }
+                // Variables of no clause yet come in through added clauses and assumptions
+                IncrementalSolver solver = new IncrementalSolver(f);
+                for (int query = 0; query < 30; query++) {
+                    if (query % 10 == 9) {
+                        Clause cl = randomClause(random, lits, width);
+                        f = f.addClause(cl);
+                        solver.addClause(cl);
+                    }
+                    Literal[] assumptions = new Literal[random.nextInt(5)];
+                    for (int i = 0; i < assumptions.length; i++) {
+                        Literal l = lits[random.nextInt(numVariables)];
+                        assumptions[i] = random.nextBoolean() ? l : l.getNegation();
+                    }
+                    HashMap<Variable, Bool> e = solver.solve(assumptions);
+                    HashMap<Variable, Bool> expected = SATSolver.solve(withUnits(f, assumptions), 3,
+                            SATSolver.Engine.CDCL);
+                    assertEquals(expected == null, e == null);
+                    if (e != null) {
+                        assertNull(new ModelVerifier(withUnits(f, assumptions)).firstViolated(e));
+                        continue;
+                    }
+                    Literal[] failed = solver.getFailedAssumptions().toArray(new Literal[0]);
+                    for (Literal l : failed) {
+                        assertTrue(Arrays.asList(assumptions).contains(l));
+                    }
+                    assertNull(SATSolver.solve(withUnits(f, failed), 3, SATSolver.Engine.CDCL));
+                }
+            }
+        }
+    }
+
+    private static Clause randomClause(Random random, Literal[] lits, int width) {
+        Clause cl = new Clause();
+        while (cl == null || cl.size() < width) {
+            if (cl == null) {
+                cl = new Clause();
+            }
+            Literal l = lits[random.nextInt(lits.length)];
+            cl = cl.add(random.nextBoolean() ? l : l.getNegation());
+        }
+        return cl;
+    }
+
+    private static Formula withUnits(Formula f, Literal[] units) {
+        for (Literal l : units) {
+            f = f.addClause(makeCl(l));
+        }
+        return f;
+    }
+}
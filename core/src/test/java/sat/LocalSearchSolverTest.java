@@ -0,0 +1,122 @@
+package sat;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import sat.core.IntFormula;
+import sat.core.Lits;
+import sat.env.Bool;
+
+public class LocalSearchSolverTest {
+
+    @Test
+    public void testSatisfiable() {
+        // Planted 3-SAT and 5-SAT, solved by both rules from several seeds
+        Random random = new Random(9);
+        for (int k : new int[] {3, 5}) {
+            for (int round = 0; round < 5; round++) {
+                IntFormula formula = planted(random, 200, k == 3 ? 800 : 3000, k);
+                for (LocalSearchSolver.Strategy strategy
+                        : new LocalSearchSolver.Strategy[] {LocalSearchSolver.Strategy.WALKSAT, LocalSearchSolver.Strategy.PROBSAT}) {
+                    LocalSearchSolver solver = new LocalSearchSolver(formula, round).setStrategy(strategy);
+                    if (k == 5) {
+                        solver.setCb(3.7);
+                    }
+                    byte[] model = solver.solve(1000000);
+                    assertNotNull(strategy + " on " + k + "-SAT", model);
+                    assertSatisfies(formula, model);
+                    for (byte value : model) {
+                        assertTrue(value == Lits.TRUE || value == Lits.FALSE);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnsatisfiable() {
+        // Every clause over three variables
+        IntFormula.Builder builder = new IntFormula.Builder(3);
+        for (int signs = 0; signs < 8; signs++) {
+            int[] clause = new int[3];
+            for (int v = 0; v < 3; v++) {
+                clause[v] = Lits.make(v, (signs >> v & 1) == 1);
+            }
+            builder.addClause(clause, 3);
+        }
+        LocalSearchSolver solver = new LocalSearchSolver(builder.build(), 1);
+        assertNull(solver.solve(5000));
+        assertEquals(5000, solver.getFlips());
+        // A second call gets the whole budget again
+        assertNull(solver.solve(5000));
+        assertEquals(10000, solver.getFlips());
+        assertNull(solver.setStrategy(LocalSearchSolver.Strategy.PROBSAT).solve(100));
+        assertEquals(10100, solver.getFlips());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void testStop() {
+        IntFormula formula = new IntFormula.Builder(1)
+                .addClause(new int[] {Lits.make(0, false)}, 1)
+                .addClause(new int[] {Lits.make(0, true)}, 1)
+                .build();
+        new LocalSearchSolver(formula, 1).setStop(new AtomicBoolean(true)).solve(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testSolveRandom() {
+        IntFormula formula = planted(new Random(4), 60, 240, 3);
+        HashMap<String, Bool> env = SATSolver.solveRandom(formula.toFormula(), 60, 3);
+        assertNotNull(env);
+        assertNull(new ModelVerifier(formula.toFormula()).firstViolatedByName(env));
+    }
+
+    // Random k-SAT over distinct variables, keeping only clauses that a hidden assignment satisfies
+    private static IntFormula planted(Random random, int numVariables, int numClauses, int k) {
+        boolean[] hidden = new boolean[numVariables];
+        for (int v = 0; v < numVariables; v++) {
+            hidden[v] = random.nextBoolean();
+        }
+        IntFormula.Builder builder = new IntFormula.Builder(numVariables);
+        int[] clause = new int[k];
+        for (int i = 0; i < numClauses; i++) {
+            boolean satisfied;
+            do {
+                satisfied = false;
+                for (int j = 0; j < k; j++) {
+                    int var;
+                    boolean repeated;
+                    do {
+                        var = random.nextInt(numVariables);
+                        repeated = false;
+                        for (int m = 0; m < j; m++) {
+                            repeated |= Lits.var(clause[m]) == var;
+                        }
+                    } while (repeated);
+                    clause[j] = Lits.make(var, random.nextBoolean());
+                    satisfied |= Lits.isNegative(clause[j]) != hidden[var];
+                }
+            } while (!satisfied);
+            builder.addClause(clause, k);
+        }
+        return builder.build();
+    }
+
+    // Check the model clause by clause
+    private static void assertSatisfies(IntFormula formula, byte[] model) {
+        int[] literals = formula.getLiterals();
+        for (int i = 0; i < formula.getNumClauses(); i++) {
+            boolean satisfied = false;
+            for (int j = formula.clauseStart(i); j < formula.clauseEnd(i) && !satisfied; j++) {
+                satisfied = Lits.value(model, literals[j]) == Lits.TRUE;
+            }
+            assertTrue("clause " + i + " is not satisfied", satisfied);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package sat;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import sat.env.*;
+import sat.formula.*;
+
+public class ModelVerifierTest {
+    @Test
+    public void testLowestViolationAcrossChunks() {
+        // Past the parallel threshold of 2^16 clauses, one unit clause per variable
+        int numClauses = 70000;
+        Formula f = new Formula();
+        for (int i = 0; i < numClauses; i++) {
+            f = f.addClause(new Clause(PosLiteral.make("mv" + i)));
+        }
+        HashMap<Variable, Bool> model = new HashMap<Variable, Bool>();
+        for (int i = 0; i < numClauses; i++) {
+            model.put(f.getClause(i).chooseLiteral().getVariable(), Bool.TRUE);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ModelVerifier verifier = new ModelVerifier(f, pool);
+        assertNull(verifier.firstViolated(model));
+        assertEquals(-1, verifier.check(verifier.toAssignment(model)));
+
+        // Violations in the last, a middle and an early chunk, planted from the back
+        int[] planted = { 69999, 60000, 20000, 9000 };
+        for (int position : planted) {
+            model.put(f.getClause(position).chooseLiteral().getVariable(), Bool.FALSE);
+            assertEquals(position, verifier.check(verifier.toAssignment(model)));
+            assertSame(f.getClause(position), verifier.firstViolated(model));
+        }
+        model.put(f.getClause(0).chooseLiteral().getVariable(), Bool.FALSE);
+        assertSame(f.getClause(0), verifier.firstViolated(model));
+        pool.shutdown();
+    }
+
+    @Test
+    public void testFirstViolatedByName() {
+        Literal a = PosLiteral.make("mva");
+        Literal b = PosLiteral.make("mvb");
+        Clause ab = new Clause(a).add(b);
+        Clause notA = new Clause(a.getNegation());
+        Formula f = new Formula(ab).addClause(notA);
+        ModelVerifier verifier = new ModelVerifier(f);
+
+        HashMap<String, Bool> model = new HashMap<String, Bool>();
+        model.put("mva", Bool.FALSE);
+        model.put("mvb", Bool.TRUE);
+        // Names the formula does not mention are ignored, and not interned
+        int allocated = PosLiteral.numAllocated();
+        model.put("mvNeverMade", Bool.TRUE);
+        assertNull(verifier.firstViolatedByName(model));
+        assertNull(PosLiteral.forName("mvNeverMade"));
+        assertEquals(allocated, PosLiteral.numAllocated());
+
+        model.put("mva", Bool.TRUE);
+        assertEquals(notA, verifier.firstViolatedByName(model));
+        model.remove("mvb");
+        model.put("mva", Bool.FALSE);
+        assertEquals(ab, verifier.firstViolatedByName(model));
+    }
+
+    @Test
+    public void testVariablesNotInterned() {
+        Clause cNotD = new Clause(PosLiteral.make("mvc")).add(PosLiteral.make("mvd").getNegation());
+        ModelVerifier verifier = new ModelVerifier(new Formula(cNotD));
+
+        HashMap<Variable, Bool> model = new HashMap<Variable, Bool>();
+        model.put(new Variable("mvd"), Bool.FALSE);
+        model.put(new Variable("mvAlsoNeverMade"), Bool.TRUE);
+        int allocated = PosLiteral.numAllocated();
+        assertNull(verifier.firstViolated(model));
+        assertEquals(allocated, PosLiteral.numAllocated());
+        model.put(new Variable("mvd"), Bool.TRUE);
+        assertEquals(cNotD, verifier.firstViolated(model));
+    }
+}
@@ -0,0 +1,135 @@
+package sat;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+import sat.core.IntFormula;
+import sat.core.Lits;
+import sat.env.*;
+import sat.formula.*;
+
+public class ParallelSCCTest {
+    // Well above the size below which ParallelSCC finishes a set with Tarjan, so that sets are split
+    private static final int NUM_VARIABLES = 20000;
+
+    @Test
+    public void testAgainstSequential() throws InterruptedException {
+        // Random 2-SAT on both sides of the threshold at one clause per variable, over 40000 vertices
+        Random random = new Random(8);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        int satisfiable = 0;
+        int unsatisfiable = 0;
+        try {
+            // Sparse formulas are mostly trimmed away; the dense ones, satisfiable only when planted, keep
+            // strongly connected sets large enough to be split
+            double[] ratios = {0.5, 0.9, 1.0, 1.1, 1.5, 2.0, 2.0, 3.0};
+            boolean[] planted = {false, false, false, false, false, false, true, true};
+            for (int k = 0; k < ratios.length; k++) {
+                for (int round = 0; round < 2; round++) {
+                    IntFormula formula = random2Sat(random, NUM_VARIABLES, ratios[k], planted[k]);
+                    HashMap<Variable, Bool> tarjan = new Graph(formula).solve(Graph.Algorithm.TARJAN);
+                    HashMap<Variable, Bool> kosaraju = solveKosaraju(formula);
+                    Graph graph = new Graph(formula);
+                    HashMap<Variable, Bool> parallel = graph.solve(pool);
+
+                    assertEquals(tarjan == null, kosaraju == null);
+                    assertEquals(tarjan == null, parallel == null);
+                    if (parallel != null) {
+                        satisfiable += 1;
+                        assertSatisfies(formula, parallel);
+                        assertSatisfies(formula, tarjan);
+                        assertSatisfies(formula, kosaraju);
+                    }
+                    else {
+                        unsatisfiable += 1;
+                        // The SCCs found in parallel hold a literal and its negation
+                        Literal[] cycle = graph.getUnsatCycle();
+                        assertNotNull(cycle);
+                        assertEquals(cycle[0], cycle[cycle.length - 1]);
+                        assertTrue(Arrays.asList(cycle).contains(cycle[0].getNegation()));
+                    }
+                }
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+        assertTrue(satisfiable > 0);
+        assertTrue(unsatisfiable > 0);
+    }
+
+    @Test
+    public void testSingleThread() {
+        // The split and the topological ordering do not depend on running in parallel
+        IntFormula formula = random2Sat(new Random(3), NUM_VARIABLES, 2.0, true);
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            HashMap<Variable, Bool> parallel = new Graph(formula).solve(pool);
+            assertNotNull(parallel);
+            assertSatisfies(formula, parallel);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    // Kosaraju recurses once per vertex on a path, so give it a thread with a deep stack
+    private static HashMap<Variable, Bool> solveKosaraju(final IntFormula formula) throws InterruptedException {
+        final AtomicReference<HashMap<Variable, Bool>> result = new AtomicReference<HashMap<Variable, Bool>>();
+        Thread thread = new Thread(null, new Runnable() {
+            public void run() {
+                result.set(new Graph(formula).solve(Graph.Algorithm.KOSARAJU));
+            }
+        }, "kosaraju", 1L << 28);
+        thread.start();
+        thread.join();
+        return result.get();
+    }
+
+    // When planted, only clauses satisfied by a hidden assignment are kept
+    private static IntFormula random2Sat(Random random, int numVariables, double ratio, boolean planted) {
+        boolean[] hidden = new boolean[numVariables + 1];
+        for (int var = 1; var <= numVariables; var++) {
+            hidden[var] = random.nextBoolean();
+        }
+        IntFormula.Builder builder = new IntFormula.Builder(numVariables);
+        int[] clause = new int[2];
+        for (int i = 0; i < (int) (ratio * numVariables); i++) {
+            do {
+                for (int j = 0; j < 2; j++) {
+                    int var = random.nextInt(numVariables) + 1;
+                    clause[j] = random.nextBoolean() ? var : -var;
+                }
+            } while (planted && !satisfiedBy(hidden, clause));
+            builder.addDimacsClause(clause, 2);
+        }
+        return builder.build();
+    }
+
+    private static boolean satisfiedBy(boolean[] hidden, int[] clause) {
+        for (int lit : clause) {
+            if ((lit > 0) == hidden[Math.abs(lit)]) return true;
+        }
+        return false;
+    }
+
+    // Check the model clause by clause
+    private static void assertSatisfies(IntFormula formula, HashMap<Variable, Bool> env) {
+        byte[] model = formula.fromEnvironment(env);
+        int[] literals = formula.getLiterals();
+        for (int i = 0; i < formula.getNumClauses(); i++) {
+            boolean satisfied = false;
+            for (int j = formula.clauseStart(i); j < formula.clauseEnd(i) && !satisfied; j++) {
+                satisfied = Lits.value(model, literals[j]) == Lits.TRUE;
+            }
+            assertTrue("clause " + i + " is not satisfied", satisfied);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package sat;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import sat.core.IntFormula;
+import sat.env.*;
+import sat.formula.*;
+
+public class PortfolioSolverTest {
+    @Test
+    public void testSatisfiable() {
+        Formula f = TestFormulas.random3Sat(new Random(1), 40, 120);
+        PortfolioSolver portfolio = PortfolioSolver.withDefaultEngines();
+        HashMap<Variable, Bool> e = SATSolver.solve(f, 3, SATSolver.Engine.PORTFOLIO);
+        assertNotNull(e);
+        assertNull(new ModelVerifier(f).firstViolated(e));
+
+        IntFormula intFormula = IntFormula.fromFormula(f);
+        byte[] model = portfolio.solve(intFormula);
+        assertNotNull(model);
+        assertNull(new ModelVerifier(f).firstViolated(intFormula.toEnvironment(model)));
+        assertTrue(portfolio.getWinner() >= 0);
+        assertEquals(1, portfolio.getWins(portfolio.getWinner()));
+    }
+
+    @Test
+    public void testUnsatisfiable() {
+        // Every assignment of the three variables falsifies one of the eight clauses
+        Literal[] vars = {PosLiteral.make("a"), PosLiteral.make("b"), PosLiteral.make("c")};
+        Formula f = new Formula();
+        for (int i = 0; i < 8; i++) {
+            Clause cl = new Clause();
+            for (int k = 0; k < 3; k++) {
+                cl = cl.add(((i >> k) & 1) == 0 ? vars[k] : vars[k].getNegation());
+            }
+            f = f.addClause(cl);
+        }
+        PortfolioSolver portfolio = PortfolioSolver.withDefaultEngines();
+        for (int round = 0; round < 5; round++) {
+            assertNull(portfolio.solve(IntFormula.fromFormula(f)));
+            PortfolioSolver.Kind kind = portfolio.getKind(portfolio.getWinner());
+            assertTrue(kind == PortfolioSolver.Kind.CDCL || kind == PortfolioSolver.Kind.DPLL);
+        }
+        long total = 0;
+        for (int member = 0; member < portfolio.size(); member++) {
+            total += portfolio.getWins(member);
+        }
+        assertEquals(5, total);
+    }
+
+    @Test
+    public void testLocalSearchOnlyGivesUp() {
+        Formula f = new Formula().addClause(new Clause(PosLiteral.make("a")))
+                .addClause(new Clause(PosLiteral.make("a").getNegation()));
+        PortfolioSolver portfolio = new PortfolioSolver().add(PortfolioSolver.Kind.WALKSAT, 1).setMaxFlips(1000);
+        assertNull(portfolio.solve(IntFormula.fromFormula(f)));
+        assertEquals(-1, portfolio.getWinner());
+    }
+
+    @Test
+    public void testInterruptedIsNotUnsatisfiable() {
+        // Interrupted while waiting, the portfolio has no answer, which SATSolver must not report as unsatisfiable
+        Formula f = TestFormulas.random3Sat(new Random(6), 40, 120);
+        Thread.currentThread().interrupt();
+        try {
+            SATSolver.solve(f, 3, SATSolver.Engine.PORTFOLIO);
+            fail("expected CancellationException");
+        }
+        catch (CancellationException e) {
+            // expected
+        }
+        finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test(expected = CancellationException.class)
+    public void testStoppedCdcl() {
+        AtomicBoolean stop = new AtomicBoolean(true);
+        new CdclSolver(IntFormula.fromFormula(TestFormulas.random3Sat(new Random(2), 20, 60))).setStop(stop).solve();
+    }
+}
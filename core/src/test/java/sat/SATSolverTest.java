@@ -0,0 +1,93 @@
+package sat;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import java.util.HashMap;
+
+import sat.env.*;
+import sat.formula.*;
+
+public class SATSolverTest {
+    Literal a = PosLiteral.make("a");
+    Literal b = PosLiteral.make("b");
+    Literal c = PosLiteral.make("c");
+    Literal na = a.getNegation();
+    Literal nb = b.getNegation();
+    Literal nc = c.getNegation();
+
+    @Test
+    public void testSATSolver1(){
+    	// (a v b)
+    	HashMap<Variable, Bool> e = SATSolver.solve(makeFm(makeCl(a,b))	);
+
+    	assertTrue( "one of the literals should be set to true",
+    			Bool.TRUE == e.get(a.getVariable())
+    			|| Bool.TRUE == e.get(b.getVariable())	);
+    	
+    }
+    
+    @Test
+    public void testSATSolver2(){
+    	// (~a)
+    	HashMap<Variable, Bool> e = SATSolver.solve(makeFm(makeCl(na)));
+    	assertEquals( Bool.FALSE, e.get(na.getVariable()));
+    }
+    
+    @Test
+    public void testRandomWalkUnbound(){
+    	// (a v b) (c v ~d): with c bound TRUE, only (a v b) is ever picked
+    	Literal d = PosLiteral.make("d");
+    	HashMap<String, Bool> env = new HashMap<String, Bool>();
+    	env.put("c", Bool.TRUE);
+    	HashMap<String, Bool> e = SATSolver.randomWalkify(makeFm(makeCl(a,b), makeCl(c,d.getNegation())), env, 1000);
+    	assertSame(env, e);
+    	// a and b were set FALSE when the clause was picked, then one of them flipped
+    	assertTrue(e.get("a") != e.get("b"));
+    	assertNotNull(e.get("a"));
+    	assertFalse(e.containsKey("d"));
+    }
+
+    @Test
+    public void testRandomWalkKeepsBindings(){
+    	// (a v b) (~a v c), with a bound TRUE and z in no clause
+    	HashMap<String, Bool> env = new HashMap<String, Bool>();
+    	env.put("a", Bool.TRUE);
+    	env.put("c", Bool.TRUE);
+    	env.put("z", Bool.FALSE);
+    	HashMap<String, Bool> e = SATSolver.randomWalkify(makeFm(makeCl(a,b), makeCl(na,c)), env, 1000);
+    	assertEquals(Bool.TRUE, e.get("a"));
+    	assertEquals(Bool.TRUE, e.get("c"));
+    	assertEquals(Bool.FALSE, e.get("z"));
+    	assertFalse(e.containsKey("b"));
+    }
+
+    @Test
+    public void testRandomWalkUnsatisfiable(){
+    	// (a v b) (a v ~b) (~a v b) (~a v ~b)
+    	Formula f = makeFm(makeCl(a,b), makeCl(a,nb), makeCl(na,b), makeCl(na,nb));
+    	assertNull(SATSolver.solveRandom(f, 2, 2));
+    	assertNull(SATSolver.randomWalkify(f, new HashMap<String, Bool>(), 400));
+    }
+
+    private static Formula makeFm(Clause... e) {
+        Formula f = new Formula();
+        for (Clause c : e) {
+            if(c != null) {
+                f = f.addClause(c);
+            }
+        }
+        return f;
+    }
+    
+    private static Clause makeCl(Literal... e) {
+        Clause c = new Clause();
+        for (Literal l : e) {
+            c = c.add(l);
+        }
+        return c;
+    }
+    
+    
+    
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package sat;
+
+import java.util.Random;
+
+import sat.formula.*;
+
+/**
+ * Formulas shared by the solver tests.
+ */
+public class TestFormulas {
+    /**
+     * @return a formula of numClauses distinct random clauses, each of three
+     *         distinct variables out of numVariables with random signs
+     */
+    public static Formula random3Sat(Random random, int numVariables, int numClauses) {
+        Formula f = new Formula();
+        while (f.getSize() < numClauses) {
+            Clause cl = new Clause();
+            for (int k = 0; k < 3 && cl != null; k++) {
+                Literal l = PosLiteral.make("r" + random.nextInt(numVariables));
+                cl = cl.add(random.nextBoolean() ? l : l.getNegation());
+            }
+            if (cl != null && cl.size() == 3) {
+                f = f.addClause(cl);
+            }
+        }
+        return f;
+    }
+
+    /**
+     * @return the conjunction of clauses
+     */
+    public static Formula makeFm(Clause... clauses) {
+        Formula f = new Formula();
+        for (Clause c : clauses) {
+            f = f.addClause(c);
+        }
+        return f;
+    }
+
+    /**
+     * @return the disjunction of literals
+     */
+    public static Clause makeCl(Literal... literals) {
+        Clause c = new Clause();
+        for (Literal l : literals) {
+            c = c.add(l);
+        }
+        return c;
+    }
+}
@@ -0,0 +1,80 @@
+package sat.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import sat.env.Bool;
+import sat.env.Variable;
+import sat.formula.*;
+
+public class IntFormulaTest {
+    Literal a = PosLiteral.make("a");
+    Literal b = PosLiteral.make("b");
+    Literal c = PosLiteral.make("c");
+
+    @Test
+    public void testDenseNumbering() {
+        // However many literals were interned before, only the formula's own variables are numbered
+        for (int i = 0; i < 10000; i++) {
+            PosLiteral.make("unrelated" + i);
+        }
+        Literal late = PosLiteral.make("late");
+        Formula f = new Formula().addClause(new Clause(late).add(a.getNegation())).addClause(new Clause(b));
+        IntFormula formula = IntFormula.fromFormula(f);
+        assertEquals(3, formula.getNumVariables());
+        for (Literal l : new Literal[] {late, a, b}) {
+            int var = formula.varOf(l.getVariable());
+            assertTrue(var >= 0 && var < 3);
+            assertEquals(l.getVariable(), formula.getVariable(var));
+            assertEquals(l, formula.toLiteral(Lits.make(var, false)));
+        }
+        assertEquals(-1, formula.varOf(c.getVariable()));
+        assertEquals(-1, formula.varOf(PosLiteral.make("unrelated5").getVariable()));
+        // Variables not interned are found by name
+        assertEquals(formula.varOf(b.getVariable()), formula.varOf(new Variable("b")));
+    }
+
+    @Test
+    public void testEnvironment() {
+        Formula f = new Formula().addClause(new Clause(a).add(b)).addClause(new Clause(c.getNegation()));
+        IntFormula formula = IntFormula.fromFormula(f);
+        HashMap<Variable, Bool> env = new HashMap<Variable, Bool>();
+        env.put(a.getVariable(), Bool.TRUE);
+        env.put(c.getVariable(), Bool.FALSE);
+        env.put(PosLiteral.make("not in formula").getVariable(), Bool.TRUE);
+
+        byte[] model = formula.fromEnvironment(env);
+        assertEquals(3, model.length);
+        assertEquals(Lits.TRUE, model[formula.varOf(a.getVariable())]);
+        assertEquals(Lits.UNDEFINED, model[formula.varOf(b.getVariable())]);
+        assertEquals(Lits.FALSE, model[formula.varOf(c.getVariable())]);
+
+        HashMap<Variable, Bool> back = formula.toEnvironment(model);
+        assertEquals(2, back.size());
+        assertEquals(Bool.TRUE, back.get(a.getVariable()));
+        assertEquals(Bool.FALSE, back.get(c.getVariable()));
+    }
+
+    @Test
+    public void testNewBuilderSharesNumbering() {
+        IntFormula formula = IntFormula.fromFormula(new Formula().addClause(new Clause(a).add(b)));
+        int var = formula.varOf(b.getVariable());
+        IntFormula other = formula.newBuilder().addClause(new int[] {Lits.make(var, true)}, 1).build();
+        assertEquals(2, other.getNumVariables());
+        assertEquals(b.getNegation(), other.toLiteral(other.getLiterals()[0]));
+        assertEquals(var, other.varOf(b.getVariable()));
+    }
+
+    @Test
+    public void testDimacsNumbering() {
+        IntFormula formula = new IntFormula.Builder(3).addDimacsClause(new int[] {1, -3}, 2).build();
+        assertEquals(2, formula.varOf(PosLiteral.make("3").getVariable()));
+        assertEquals(-1, formula.varOf(PosLiteral.make("4").getVariable()));
+        assertEquals(-1, formula.varOf(a.getVariable()));
+        assertEquals(-3, formula.toDimacs(formula.getLiterals()[1]));
+        assertEquals("1", formula.getVariable(0).getName());
+    }
+}
@@ -0,0 +1,46 @@
+package sat.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class VarHeapTest {
+    @Test
+    public void testTiesInOrder() {
+        VarHeap heap = new VarHeap(new double[5]);
+        for (int v = 4; v >= 0; v--) {
+            heap.insert(v);
+        }
+        for (int v = 0; v < 5; v++) {
+            assertEquals(v, heap.removeMax());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testIncreased() {
+        double[] scores = new double[100];
+        VarHeap heap = new VarHeap(scores);
+        Random random = new Random(11);
+        for (int v = 0; v < scores.length; v++) {
+            scores[v] = random.nextDouble();
+            heap.insert(v);
+        }
+        for (int i = 0; i < 200; i++) {
+            int v = random.nextInt(scores.length);
+            scores[v] += random.nextDouble();
+            heap.increased(v);
+        }
+        heap.insert(7); // already in
+        assertEquals(scores.length, heap.size());
+        double last = Double.MAX_VALUE;
+        while (!heap.isEmpty()) {
+            int v = heap.removeMax();
+            assertFalse(heap.contains(v));
+            assertTrue(scores[v] <= last);
+            last = scores[v];
+        }
+    }
+}
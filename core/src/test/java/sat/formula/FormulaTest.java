@@ -0,0 +1,64 @@
+package sat.formula;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import sat.core.Lits;
+
+public class FormulaTest {
+    private static final byte T = Lits.TRUE;
+    private static final byte F = Lits.FALSE;
+    private static final byte U = Lits.UNDEFINED;
+
+    Literal a = PosLiteral.make("a");
+    Literal b = PosLiteral.make("b");
+    Literal c = PosLiteral.make("c");
+    Literal na = a.getNegation();
+    Literal nb = b.getNegation();
+
+    // Assignment indexed by variable id, large enough for a, b and c
+    private byte[] assign(byte va, byte vb, byte vc) {
+        int size = Math.max(id(a), Math.max(id(b), id(c))) + 1;
+        byte[] assignment = new byte[size];
+        assignment[id(a)] = va;
+        assignment[id(b)] = vb;
+        assignment[id(c)] = vc;
+        return assignment;
+    }
+
+    private static int id(Literal l) {
+        return l.getVariable().getId();
+    }
+
+    @Test
+    public void testClauseEval() {
+        Clause cl = new Clause(a).add(nb);
+        assertEquals(Lits.TRUE, cl.eval(assign(T, T, U)));
+        assertEquals(Lits.TRUE, cl.eval(assign(F, F, U)));
+        assertEquals(Lits.FALSE, cl.eval(assign(F, T, U)));
+        assertEquals(Lits.UNDEFINED, cl.eval(assign(F, U, U)));
+        assertEquals(Lits.UNDEFINED, cl.eval(new byte[0]));
+        assertEquals(Lits.FALSE, new Clause().eval(new byte[0]));
+    }
+
+    @Test
+    public void testFormulaEval() {
+        // (a v b) (~a v c) (~b)
+        Formula f = new Formula().addClause(new Clause(a).add(b))
+                .addClause(new Clause(na).add(c)).addClause(new Clause(nb));
+        byte[] model = assign(T, F, T);
+        assertEquals(Lits.TRUE, f.eval(model));
+        assertEquals(0, f.countUnsatisfied(model));
+        assertEquals(-1, f.firstUnsatisfied(model));
+
+        byte[] partial = assign(T, T, U);
+        assertEquals(Lits.FALSE, f.eval(partial));
+        assertEquals(2, f.countUnsatisfied(partial));
+        int first = f.firstUnsatisfied(partial);
+        assertNotEquals(Lits.TRUE, f.getClause(first).eval(partial));
+        for (int i = 0; i < first; i++) {
+            assertEquals(Lits.TRUE, f.getClause(i).eval(partial));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package sat.heuristic;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import sat.CdclSolver;
+import sat.TestFormulas;
+import sat.core.IntFormula;
+import sat.core.Lits;
+
+public class DecisionHeuristicTest {
+    @Test
+    public void testSameVerdicts() {
+        Random random = new Random(13);
+        for (int round = 0; round < 50; round++) {
+            IntFormula f = IntFormula.fromFormula(TestFormulas.random3Sat(random, 30, 128));
+            byte[] vsids = new CdclSolver(f).solve();
+            byte[] order = new CdclSolver(f).setHeuristic(new OrderHeuristic()).solve();
+            byte[] smallest = new CdclSolver(f).setHeuristic(new SmallestClauseHeuristic()).solve();
+            byte[] seeded = new CdclSolver(f).setSeed(round).solve();
+            assertEquals(vsids == null, order == null);
+            assertEquals(vsids == null, smallest == null);
+            assertEquals(vsids == null, seeded == null);
+            for (byte[] model : new byte[][] {vsids, order, smallest, seeded}) {
+                if (model != null) {
+                    assertTrue(satisfies(f, model));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPhaseSaving() {
+        IntFormula f = IntFormula.fromFormula(TestFormulas.random3Sat(new Random(1), 10, 20));
+        VsidsHeuristic vsids = new VsidsHeuristic();
+        vsids.init(f);
+        byte[] assigns = new byte[f.getNumVariables()];
+        int first = vsids.pick(assigns);
+        assertEquals(Lits.make(0, true), first);
+        vsids.bump(3);
+        vsids.decay();
+        vsids.bump(5);
+        assertTrue(vsids.getActivity(5) > vsids.getActivity(3));
+        assertEquals(Lits.make(5, true), vsids.pick(assigns));
+        vsids.unassign(5, Lits.TRUE);
+        assertEquals(Lits.make(5, false), vsids.pick(assigns));
+    }
+
+    private static boolean satisfies(IntFormula f, byte[] model) {
+        for (int c = 0; c < f.getNumClauses(); c++) {
+            boolean satisfied = false;
+            for (int j = f.clauseStart(c); j < f.clauseEnd(c); j++) {
+                satisfied |= Lits.value(model, f.getLiterals()[j]) == Lits.TRUE;
+            }
+            if (!satisfied) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package sat.heuristic;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RestartPolicyTest {
+    @Test
+    public void testLubySequence() {
+        long[] expected = {1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], LubyRestarts.luby(i));
+        }
+    }
+
+    @Test
+    public void testLubyRestarts() {
+        // Runs of 10, 10, 20, 10 conflicts
+        LubyRestarts luby = new LubyRestarts(10);
+        int[] runs = {10, 10, 20, 10};
+        for (int run : runs) {
+            for (int i = 1; i < run; i++) {
+                assertFalse(luby.conflict(5));
+            }
+            assertTrue(luby.conflict(5));
+        }
+    }
+
+    @Test
+    public void testGeometricRestarts() {
+        GeometricRestarts geometric = new GeometricRestarts(4, 2);
+        int restarts = 0;
+        for (int i = 0; i < 4 + 8 + 16; i++) {
+            if (geometric.conflict(3)) {
+                restarts += 1;
+            }
+        }
+        assertEquals(3, restarts);
+    }
+
+    @Test
+    public void testGlucoseRestarts() {
+        GlucoseRestarts glucose = new GlucoseRestarts(50, 1.25);
+        // Steady LBDs never restart
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(glucose.conflict(5));
+        }
+        // A run of much worse clauses does, once 50 conflicts have passed
+        boolean restarted = false;
+        for (int i = 0; i < 100 && !restarted; i++) {
+            restarted = glucose.conflict(20);
+        }
+        assertTrue(restarted);
+    }
+}
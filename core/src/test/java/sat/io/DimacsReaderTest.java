@@ -0,0 +1,153 @@
+package sat.io;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import sat.core.IntFormula;
+import sat.formula.Formula;
+
+public class DimacsReaderTest {
+
+    private interface Reading<T> {
+        T readFrom(DimacsReader reader) throws IOException;
+    }
+
+    private static <T> T read(String text, Reading<T> reading) throws IOException {
+        Path file = Files.createTempFile("problem", ".cnf");
+        try {
+            Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+            return reading.readFrom(new DimacsReader(file));
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    private static IntFormula readInts(String text) throws IOException {
+        return read(text, new Reading<IntFormula>() {
+            public IntFormula readFrom(DimacsReader reader) throws IOException {
+                return reader.readIntFormula();
+            }
+        });
+    }
+
+    // The clauses of formula in DIMACS form
+    private static String clauses(IntFormula formula) {
+        int[][] result = new int[formula.getNumClauses()][];
+        int[] literals = formula.getLiterals();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new int[formula.clauseSize(i)];
+            for (int j = 0; j < result[i].length; j++) {
+                result[i][j] = formula.toDimacs(literals[formula.clauseStart(i) + j]);
+            }
+        }
+        return Arrays.deepToString(result);
+    }
+
+    private static void assertInvalid(String text, String message) {
+        try {
+            readInts(text);
+            fail("expected IOException");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void testComments() throws IOException {
+        IntFormula f = readInts("c a problem\nc\np cnf 3 2\nc between clauses\n1 -2 0\n2 3 0\nc at the end");
+        assertEquals(3, f.getNumVariables());
+        assertEquals("[[1, -2], [2, 3]]", clauses(f));
+    }
+
+    @Test
+    public void testClauseLayout() throws IOException {
+        // A clause over two lines, and two clauses and the start of a third on one line
+        IntFormula f = readInts("p cnf 4 3\n1 2\n  -3 0 4 0\t-1\r\n-4 0\n");
+        assertEquals("[[1, 2, -3], [4], [-1, -4]]", clauses(f));
+    }
+
+    @Test
+    public void testMissingTrailingZero() throws IOException {
+        IntFormula f = readInts("p cnf 2 2\n1 0\n1 -2");
+        assertEquals("[[1], [1, -2]]", clauses(f));
+    }
+
+    @Test
+    public void testPercentEndsInput() throws IOException {
+        IntFormula f = readInts("p cnf 2 1\n1 -2 0\n%\n0\n");
+        assertEquals("[[1, -2]]", clauses(f));
+    }
+
+    @Test
+    public void testTautologiesAndDuplicates() throws IOException {
+        String text = "p cnf 3 3\n1 -1 2 0\n2 3 2 0\n-3 -3 0\n";
+        IntFormula f = readInts(text);
+        assertEquals("[[2, 3], [-3]]", clauses(f));
+        assertEquals(2, f.getDegree());
+
+        Formula formula = read(text, new Reading<Formula>() {
+            public Formula readFrom(DimacsReader reader) throws IOException {
+                Formula result = reader.read();
+                assertEquals(3, reader.getClausesRead());
+                assertEquals(3, reader.getDegree());
+                return result;
+            }
+        });
+        assertEquals(2, formula.getSize());
+    }
+
+    @Test
+    public void testStatistics() throws IOException {
+        String text = "p cnf 5 2\n1 2 3 4 5 0\n-1 0\n";
+        DimacsReader reader = read(text, new Reading<DimacsReader>() {
+            public DimacsReader readFrom(DimacsReader reader) throws IOException {
+                reader.readIntFormula();
+                return reader;
+            }
+        });
+        assertEquals(5, reader.getNumVariables());
+        assertEquals(2, reader.getNumClauses());
+        assertEquals(2, reader.getClausesRead());
+        assertEquals(text.length(), reader.getBytesRead());
+    }
+
+    @Test
+    public void testLargeFile() throws IOException {
+        // More than fits in the buffer, so literals are split across reads
+        StringBuilder text = new StringBuilder("p cnf 100000 100000\n");
+        for (int i = 1; i <= 100000; i++) {
+            text.append(i).append(" -").append(100001 - i).append(" 0\n");
+        }
+        IntFormula f = readInts(text.toString());
+        assertEquals(100000, f.getNumClauses());
+        assertEquals(12345, f.toDimacs(f.getLiterals()[f.clauseStart(12344)]));
+        assertEquals(-87656, f.toDimacs(f.getLiterals()[f.clauseStart(12344) + 1]));
+    }
+
+    @Test
+    public void testDuplicateHeader() {
+        assertInvalid("p cnf 2 1\np cnf 2 1\n1 2 0\n", "duplicate p line");
+    }
+
+    @Test
+    public void testVariableOutOfRange() {
+        assertInvalid("p cnf 2 1\n1 3 0\n", "variable 3 exceeds the 2 declared");
+    }
+
+    @Test
+    public void testMalformed() {
+        assertInvalid("1 2 0\n", "clause before p line");
+        assertInvalid("p dnf 2 1\n", "expected p cnf");
+        assertInvalid("p cnf 2 1\n1 x 0\n", "unexpected character 'x'");
+        assertInvalid("p cnf 2 1\n1 - 0\n", "expected a number");
+    }
+}
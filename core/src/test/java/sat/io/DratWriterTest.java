@@ -0,0 +1,61 @@
+package sat.io;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class DratWriterTest {
+
+    private static byte[] write(DratWriter.Format format) throws IOException {
+        Path file = Files.createTempFile("proof", ".drat");
+        try {
+            DratWriter proof = new DratWriter(file, format);
+            proof.add(new int[] {1, -2, 300}, 3);
+            proof.delete(new int[] {-1, 2, 0}, 2);
+            proof.addEmpty();
+            proof.close();
+            assertEquals(2, proof.getAdded());
+            assertEquals(1, proof.getDeleted());
+            return Files.readAllBytes(file);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testText() throws IOException {
+        assertEquals("1 -2 300 0\nd -1 2 0\n0\n",
+                new String(write(DratWriter.Format.TEXT), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testBinary() throws IOException {
+        // 1 -> 2, -2 -> 5, 300 -> 600 = 0x258 in two 7 bit groups, -1 -> 3, 2 -> 4
+        byte[] expected = {'a', 2, 5, (byte) 0xD8, 0x04, 0, 'd', 3, 4, 0, 'a', 0};
+        assertArrayEquals(expected, write(DratWriter.Format.BINARY));
+    }
+
+    @Test
+    public void testLargeProof() throws IOException {
+        // More than fits in the buffer, so it has to be flushed along the way
+        Path file = Files.createTempFile("proof", ".drat");
+        try {
+            DratWriter proof = new DratWriter(file, DratWriter.Format.TEXT);
+            int[] clause = {-123456, 7890};
+            for (int i = 0; i < 10000; i++) {
+                proof.add(clause, 2);
+            }
+            proof.close();
+            assertEquals(10000 * "-123456 7890 0\n".length(), Files.size(file));
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+}
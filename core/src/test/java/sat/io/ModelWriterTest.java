@@ -0,0 +1,84 @@
+package sat.io;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import sat.core.Lits;
+
+public class ModelWriterTest {
+    private static final byte T = Lits.TRUE;
+    private static final byte F = Lits.FALSE;
+    private static final byte U = Lits.UNDEFINED;
+
+    private interface Output {
+        void writeTo(ModelWriter writer) throws IOException;
+    }
+
+    private static List<String> write(ModelWriter.Format format, Output output) throws IOException {
+        Path file = Files.createTempFile("model", ".txt");
+        try {
+            ModelWriter writer = new ModelWriter(file, format);
+            output.writeTo(writer);
+            writer.close();
+            return Files.readAllLines(file, StandardCharsets.US_ASCII);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCompetition() throws IOException {
+        final byte[] model = {T, F, U, T};
+        assertEquals(List.of("s SATISFIABLE", "v 1 -2 4 0"),
+                write(ModelWriter.Format.COMPETITION, w -> w.writeSatisfiable(model, 4)));
+        assertEquals(List.of("s UNSATISFIABLE"),
+                write(ModelWriter.Format.COMPETITION, w -> w.writeUnsatisfiable()));
+        assertEquals(List.of("s UNKNOWN"),
+                write(ModelWriter.Format.COMPETITION, w -> w.writeUnknown()));
+    }
+
+    @Test
+    public void testNameValue() throws IOException {
+        final byte[] model = {T, F, U, T};
+        assertEquals(List.of("1:TRUE", "2:FALSE", "4:TRUE"),
+                write(ModelWriter.Format.NAME_VALUE, w -> w.writeSatisfiable(model, 4)));
+        assertEquals(List.of("null"),
+                write(ModelWriter.Format.NAME_VALUE, w -> w.writeUnsatisfiable()));
+    }
+
+    @Test
+    public void testLargeModel() throws IOException {
+        // Several buffers full, with "v" lines broken across flushes
+        final int n = 500000;
+        final byte[] model = new byte[n];
+        for (int i = 0; i < n; i++) {
+            model[i] = i % 3 == 0 ? F : T;
+        }
+        List<String> lines = write(ModelWriter.Format.COMPETITION, w -> w.writeSatisfiable(model, n));
+        assertEquals("s SATISFIABLE", lines.get(0));
+        int next = 1;
+        for (String line : lines.subList(1, lines.size())) {
+            assertTrue(line, line.length() <= 80);
+            String[] tokens = line.split(" ");
+            assertEquals("v", tokens[0]);
+            for (int j = 1; j < tokens.length; j++) {
+                int literal = Integer.parseInt(tokens[j]);
+                if (literal == 0) {
+                    assertEquals(n + 1, next);
+                    break;
+                }
+                assertEquals((next - 1) % 3 == 0 ? -next : next, literal);
+                next += 1;
+            }
+        }
+        assertEquals(n + 1, next);
+    }
+}
@@ -0,0 +1,145 @@
+package sat.preprocess;
+
+import static org.junit.Assert.*;
+import static sat.TestFormulas.makeCl;
+import static sat.TestFormulas.makeFm;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import sat.ModelVerifier;
+import sat.SATSolver;
+import sat.core.IntFormula;
+import sat.env.*;
+import sat.formula.*;
+
+public class PreprocessorTest {
+    Literal a = PosLiteral.make("a");
+    Literal b = PosLiteral.make("b");
+    Literal c = PosLiteral.make("c");
+    Literal d = PosLiteral.make("d");
+    Literal na = a.getNegation();
+    Literal nb = b.getNegation();
+    Literal nc = c.getNegation();
+    Literal nd = d.getNegation();
+
+    @Test
+    public void testUnitPropagation() {
+        // a, (~a v b), (~b v c v d), (~c v ~d v ~a): a and b are fixed, leaving (c v d) (~c v ~d)
+        Formula f = makeFm(makeCl(a), makeCl(na, b), makeCl(nb, c, d), makeCl(nc, nd, na));
+        Preprocessor p = new Preprocessor(IntFormula.fromFormula(f)).setVariableElimination(false);
+        IntFormula simplified = p.run();
+        assertNotNull(simplified);
+        assertEquals(2, p.getFixed());
+        assertEquals(2, simplified.getNumClauses());
+        assertEquals(2, simplified.clauseSize(0));
+        assertEquals(2, simplified.clauseSize(1));
+    }
+
+    @Test
+    public void testConflict() {
+        // a, (~a v b), (~a v ~b)
+        Formula f = makeFm(makeCl(a), makeCl(na, b), makeCl(na, nb));
+        Preprocessor p = new Preprocessor(IntFormula.fromFormula(f));
+        assertNull(p.run());
+    }
+
+    @Test
+    public void testDuplicatesAndSubsumption() {
+        // (a v b) twice, (b v a), (a v b v c) and (a v b v ~d) subsumed, and (~a v ~b v c), (~a v ~c v d)
+        Formula f = makeFm(makeCl(a, b), makeCl(a, b), makeCl(b, a), makeCl(a, b, c), makeCl(a, b, nd),
+                makeCl(na, nb, c), makeCl(na, nc, d), makeCl(nc, nd, na));
+        Preprocessor p = new Preprocessor(IntFormula.fromFormula(f));
+        assertNotNull(p.run());
+        assertEquals(2, p.getDuplicates());
+        assertEquals(2, p.getSubsumed());
+    }
+
+    @Test
+    public void testPureLiterals() {
+        // c only occurs positively; once its clauses are gone, so does ~d
+        Formula f = makeFm(makeCl(a, b, c), makeCl(na, c, nd), makeCl(nb, nd, a), makeCl(b, na, nd));
+        Preprocessor p = new Preprocessor(IntFormula.fromFormula(f)).setVariableElimination(false);
+        IntFormula simplified = p.run();
+        assertNotNull(simplified);
+        assertEquals(2, p.getPure());
+        assertEquals(0, simplified.getNumClauses());
+    }
+
+    @Test
+    public void testModelExtendsToOriginal() {
+        Formula f = makeFm(makeCl(a), makeCl(na, b, c), makeCl(nb, nc, d), makeCl(b, c, nd),
+                makeCl(nb, c, nd), makeCl(b, c, nd), makeCl(c, d, b));
+        HashMap<Variable, Bool> e = SATSolver.solve(new Preprocessor(IntFormula.fromFormula(f)),
+                SATSolver.Engine.CDCL, null);
+        assertNotNull(e);
+        assertNull(new ModelVerifier(f).firstViolated(e));
+        e = SATSolver.solve(new Preprocessor(IntFormula.fromFormula(f)), SATSolver.Engine.DPLL, null);
+        assertNotNull(e);
+        assertNull(new ModelVerifier(f).firstViolated(e));
+    }
+
+    @Test
+    public void testUnsatisfiableAfterPreprocessing() {
+        // Every assignment of b, c, d falsifies one of the eight clauses, once a is fixed
+        Formula f = makeFm(makeCl(a));
+        Literal[][] signs = {{b, nb}, {c, nc}, {d, nd}};
+        for (int i = 0; i < 8; i++) {
+            f = f.addClause(makeCl(na, signs[0][i & 1], signs[1][(i >> 1) & 1], signs[2][(i >> 2) & 1]));
+        }
+        assertNull(SATSolver.solve(new Preprocessor(IntFormula.fromFormula(f)), SATSolver.Engine.CDCL, null));
+    }
+
+    @Test
+    public void testVariableElimination() {
+        // x is defined as a and b: (~x v a) (~x v b) (x v ~a v ~b); its five
+        // clauses with (x v c v d) (~x v ~c v d) have three resolvents
+        Literal x = PosLiteral.make("x");
+        Literal nx = x.getNegation();
+        Formula f = makeFm(makeCl(nx, a), makeCl(nx, b), makeCl(x, na, nb), makeCl(x, c, d), makeCl(nx, nc, d),
+                makeCl(na, nb, nc), makeCl(c, nd, a), makeCl(nc, nd, b));
+        Preprocessor p = new Preprocessor(IntFormula.fromFormula(f));
+        assertNotNull(p.run());
+        assertTrue(p.getEliminated() > 0);
+        assertTrue(p.getRemainingClauses() < p.getOriginalClauses());
+
+        HashMap<Variable, Bool> e = SATSolver.solve(new Preprocessor(IntFormula.fromFormula(f)),
+                SATSolver.Engine.CDCL, null);
+        assertNotNull(e);
+        assertNull(new ModelVerifier(f).firstViolated(e));
+    }
+
+    @Test
+    public void testRandomFormulas() {
+        // Same verdict as without preprocessing, and models of the original formula
+        Random random = new Random(42);
+        Literal[] vars = new Literal[12];
+        for (int v = 0; v < vars.length; v++) {
+            vars[v] = PosLiteral.make("r" + v);
+        }
+        for (int round = 0; round < 200; round++) {
+            Formula f = new Formula();
+            int numClauses = 20 + random.nextInt(40);
+            for (int i = 0; i < numClauses; i++) {
+                Clause cl = new Clause();
+                int width = 1 + random.nextInt(4);
+                for (int k = 0; k < width && cl != null; k++) {
+                    Literal l = vars[random.nextInt(vars.length)];
+                    cl = cl.add(random.nextBoolean() ? l : l.getNegation());
+                }
+                if (cl != null) {
+                    f = f.addClause(cl);
+                }
+            }
+            HashMap<Variable, Bool> expected = SATSolver.solve(f, 3, SATSolver.Engine.CDCL);
+            HashMap<Variable, Bool> e = SATSolver.solve(new Preprocessor(IntFormula.fromFormula(f)),
+                    SATSolver.Engine.CDCL, null);
+            assertEquals(expected == null, e == null);
+            if (e != null) {
+                assertNull(new ModelVerifier(f).firstViolated(e));
+            }
+        }
+    }
+}